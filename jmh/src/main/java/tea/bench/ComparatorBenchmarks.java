@@ -0,0 +1,101 @@
+package tea.bench;
+
+import com.example.tutorial.AddressBookProtos.Person;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tea.comparator.Differencer;
+import tea.comparator.Path;
+import tea.comparator.RecursiveDifferencer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of the RecursiveDifferencer building blocks, named after them, on AddressBook.people over book sizes and change rates.
+// Run with -prof gc for the bytes allocated per operation.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx4g")
+public class ComparatorBenchmarks {
+
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    // fraction of people given a new email on the right
+    @Param({"0", "0.01", "0.1"})
+    private double changeRate;
+
+    private Differencer<Person, Person> person;
+    private Differencer<List<Person>, List<Person>> positional;
+    private Differencer<List<Person>, List<Person>> keyed;
+    private Differencer<Map<String, Person>, Map<String, Person>> mapValues;
+    private List<Person> left;
+    private List<Person> right;
+    private Map<String, Person> leftByName;
+    private Map<String, Person> rightByName;
+
+    @Setup
+    public void setUp() {
+        person = RecursiveDifferencer.compose(
+                RecursiveDifferencer.diffChildWithEquals(Person::getName, "name"),
+                RecursiveDifferencer.diffChildWithEquals(Person::getId, "id"),
+                RecursiveDifferencer.diffChildWithEquals(Person::getEmail, "email"),
+                RecursiveDifferencer.diffChild(Person::getPhonesList, "phones", RecursiveDifferencer.diffListElements(RecursiveDifferencer.compose(
+                        RecursiveDifferencer.diffChildWithEquals(Person.PhoneNumber::getNumber, "number"),
+                        RecursiveDifferencer.diffChildWithEquals(Person.PhoneNumber::getType, "type")))));
+        positional = RecursiveDifferencer.diffListElements(person);
+        keyed = RecursiveDifferencer.diffListElementsAsMap(person, Person::getName);
+        mapValues = RecursiveDifferencer.diffMapValues(person);
+
+        var book = AddressBooks.generate(size, 42);
+        left = book.getPeopleList();
+        right = AddressBooks.withChanges(book, (int) (size * changeRate), 7).getPeopleList();
+        leftByName = byName(left);
+        rightByName = byName(right);
+    }
+
+    // The composed person differencer on its own, without a list differencer around it.
+    @Benchmark
+    public void compose(Blackhole blackhole) {
+        for (int i = 0; i < left.size(); i++) {
+            person.differences(Path.root(), left.get(i), right.get(i)).forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void diffListElements(Blackhole blackhole) {
+        positional.differences(Path.root(), left, right).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void diffListElementsAsMap(Blackhole blackhole) {
+        keyed.differences(Path.root(), left, right).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void diffMapValues(Blackhole blackhole) {
+        mapValues.differences(Path.root(), leftByName, rightByName).forEach(blackhole::consume);
+    }
+
+    private static Map<String, Person> byName(List<Person> people) {
+        var byName = new HashMap<String, Person>();
+        for (var person : people) {
+            byName.put(person.getName(), person);
+        }
+        return byName;
+    }
+}
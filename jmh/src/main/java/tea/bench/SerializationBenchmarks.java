@@ -0,0 +1,56 @@
+package tea.bench;
+
+import com.example.tutorial.AddressBookProtos.AddressBook;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of parsing and writing whole address books by size. Run with -prof gc for the bytes allocated per operation.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx4g")
+public class SerializationBenchmarks {
+
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    private AddressBook book;
+    private byte[] bytes;
+    private byte[] buffer;
+
+    @Setup
+    public void setUp() {
+        book = AddressBooks.generate(size, 42);
+        bytes = book.toByteArray();
+        buffer = new byte[bytes.length];
+    }
+
+    @Benchmark
+    public AddressBook parseFrom() throws InvalidProtocolBufferException {
+        return AddressBook.parseFrom(bytes);
+    }
+
+    // Writes into a reused buffer so that only the serializer's own allocations are counted.
+    @Benchmark
+    public int writeTo() throws IOException {
+        var out = CodedOutputStream.newInstance(buffer);
+        book.writeTo(out);
+        return out.spaceLeft();
+    }
+}
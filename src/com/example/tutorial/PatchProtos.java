@@ -0,0 +1,2191 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: proto/patch.proto
+
+package com.example.tutorial;
+
+public final class PatchProtos {
+  private PatchProtos() {}
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistryLite registry) {
+  }
+
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistry registry) {
+    registerAllExtensions(
+        (com.google.protobuf.ExtensionRegistryLite) registry);
+  }
+  public interface AddressBookPatchOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:tutorial.AddressBookPatch)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>repeated .tutorial.PersonPatch people = 1;</code>
+     */
+    java.util.List<com.example.tutorial.PatchProtos.PersonPatch> 
+        getPeopleList();
+    /**
+     * <code>repeated .tutorial.PersonPatch people = 1;</code>
+     */
+    com.example.tutorial.PatchProtos.PersonPatch getPeople(int index);
+    /**
+     * <code>repeated .tutorial.PersonPatch people = 1;</code>
+     */
+    int getPeopleCount();
+    /**
+     * <code>repeated .tutorial.PersonPatch people = 1;</code>
+     */
+    java.util.List<? extends com.example.tutorial.PatchProtos.PersonPatchOrBuilder> 
+        getPeopleOrBuilderList();
+    /**
+     * <code>repeated .tutorial.PersonPatch people = 1;</code>
+     */
+    com.example.tutorial.PatchProtos.PersonPatchOrBuilder getPeopleOrBuilder(
+        int index);
+  }
+  /**
+   * <pre>
+   * The changes that turn one AddressBook into another, keyed by person name.
+   * </pre>
+   *
+   * Protobuf type {@code tutorial.AddressBookPatch}
+   */
+  public  static final class AddressBookPatch extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:tutorial.AddressBookPatch)
+      AddressBookPatchOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use AddressBookPatch.newBuilder() to construct.
+    private AddressBookPatch(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private AddressBookPatch() {
+      people_ = java.util.Collections.emptyList();
+    }
+
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new AddressBookPatch();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private AddressBookPatch(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 10: {
+              if (!((mutable_bitField0_ & 0x00000001) != 0)) {
+                people_ = new java.util.ArrayList<com.example.tutorial.PatchProtos.PersonPatch>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              people_.add(
+                  input.readMessage(com.example.tutorial.PatchProtos.PersonPatch.parser(), extensionRegistry));
+              break;
+            }
+            default: {
+              if (!parseUnknownField(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000001) != 0)) {
+          people_ = java.util.Collections.unmodifiableList(people_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.example.tutorial.PatchProtos.internal_static_tutorial_AddressBookPatch_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.example.tutorial.PatchProtos.internal_static_tutorial_AddressBookPatch_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.example.tutorial.PatchProtos.AddressBookPatch.class, com.example.tutorial.PatchProtos.AddressBookPatch.Builder.class);
+    }
+
+    public static final int PEOPLE_FIELD_NUMBER = 1;
+    private java.util.List<com.example.tutorial.PatchProtos.PersonPatch> people_;
+    /**
+     * <code>repeated .tutorial.PersonPatch people = 1;</code>
+     */
+    public java.util.List<com.example.tutorial.PatchProtos.PersonPatch> getPeopleList() {
+      return people_;
+    }
+    /**
+     * <code>repeated .tutorial.PersonPatch people = 1;</code>
+     */
+    public java.util.List<? extends com.example.tutorial.PatchProtos.PersonPatchOrBuilder> 
+        getPeopleOrBuilderList() {
+      return people_;
+    }
+    /**
+     * <code>repeated .tutorial.PersonPatch people = 1;</code>
+     */
+    public int getPeopleCount() {
+      return people_.size();
+    }
+    /**
+     * <code>repeated .tutorial.PersonPatch people = 1;</code>
+     */
+    public com.example.tutorial.PatchProtos.PersonPatch getPeople(int index) {
+      return people_.get(index);
+    }
+    /**
+     * <code>repeated .tutorial.PersonPatch people = 1;</code>
+     */
+    public com.example.tutorial.PatchProtos.PersonPatchOrBuilder getPeopleOrBuilder(
+        int index) {
+      return people_.get(index);
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      for (int i = 0; i < people_.size(); i++) {
+        output.writeMessage(1, people_.get(i));
+      }
+      unknownFields.writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      for (int i = 0; i < people_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, people_.get(i));
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof com.example.tutorial.PatchProtos.AddressBookPatch)) {
+        return super.equals(obj);
+      }
+      com.example.tutorial.PatchProtos.AddressBookPatch other = (com.example.tutorial.PatchProtos.AddressBookPatch) obj;
+
+      if (!getPeopleList()
+          .equals(other.getPeopleList())) return false;
+      if (!unknownFields.equals(other.unknownFields)) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (getPeopleCount() > 0) {
+        hash = (37 * hash) + PEOPLE_FIELD_NUMBER;
+        hash = (53 * hash) + getPeopleList().hashCode();
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static com.example.tutorial.PatchProtos.AddressBookPatch parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.example.tutorial.PatchProtos.AddressBookPatch parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.example.tutorial.PatchProtos.AddressBookPatch parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.example.tutorial.PatchProtos.AddressBookPatch parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.example.tutorial.PatchProtos.AddressBookPatch parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.example.tutorial.PatchProtos.AddressBookPatch parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.example.tutorial.PatchProtos.AddressBookPatch parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.example.tutorial.PatchProtos.AddressBookPatch parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static com.example.tutorial.PatchProtos.AddressBookPatch parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static com.example.tutorial.PatchProtos.AddressBookPatch parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static com.example.tutorial.PatchProtos.AddressBookPatch parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.example.tutorial.PatchProtos.AddressBookPatch parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(com.example.tutorial.PatchProtos.AddressBookPatch prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * <pre>
+     * The changes that turn one AddressBook into another, keyed by person name.
+     * </pre>
+     *
+     * Protobuf type {@code tutorial.AddressBookPatch}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:tutorial.AddressBookPatch)
+        com.example.tutorial.PatchProtos.AddressBookPatchOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.example.tutorial.PatchProtos.internal_static_tutorial_AddressBookPatch_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.example.tutorial.PatchProtos.internal_static_tutorial_AddressBookPatch_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.example.tutorial.PatchProtos.AddressBookPatch.class, com.example.tutorial.PatchProtos.AddressBookPatch.Builder.class);
+      }
+
+      // Construct using com.example.tutorial.PatchProtos.AddressBookPatch.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getPeopleFieldBuilder();
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        if (peopleBuilder_ == null) {
+          people_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+        } else {
+          peopleBuilder_.clear();
+        }
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.example.tutorial.PatchProtos.internal_static_tutorial_AddressBookPatch_descriptor;
+      }
+
+      @java.lang.Override
+      public com.example.tutorial.PatchProtos.AddressBookPatch getDefaultInstanceForType() {
+        return com.example.tutorial.PatchProtos.AddressBookPatch.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public com.example.tutorial.PatchProtos.AddressBookPatch build() {
+        com.example.tutorial.PatchProtos.AddressBookPatch result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public com.example.tutorial.PatchProtos.AddressBookPatch buildPartial() {
+        com.example.tutorial.PatchProtos.AddressBookPatch result = new com.example.tutorial.PatchProtos.AddressBookPatch(this);
+        int from_bitField0_ = bitField0_;
+        if (peopleBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) != 0)) {
+            people_ = java.util.Collections.unmodifiableList(people_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
+          result.people_ = people_;
+        } else {
+          result.people_ = peopleBuilder_.build();
+        }
+        onBuilt();
+        return result;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof com.example.tutorial.PatchProtos.AddressBookPatch) {
+          return mergeFrom((com.example.tutorial.PatchProtos.AddressBookPatch)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.example.tutorial.PatchProtos.AddressBookPatch other) {
+        if (other == com.example.tutorial.PatchProtos.AddressBookPatch.getDefaultInstance()) return this;
+        if (peopleBuilder_ == null) {
+          if (!other.people_.isEmpty()) {
+            if (people_.isEmpty()) {
+              people_ = other.people_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensurePeopleIsMutable();
+              people_.addAll(other.people_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.people_.isEmpty()) {
+            if (peopleBuilder_.isEmpty()) {
+              peopleBuilder_.dispose();
+              peopleBuilder_ = null;
+              people_ = other.people_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              peopleBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getPeopleFieldBuilder() : null;
+            } else {
+              peopleBuilder_.addAllMessages(other.people_);
+            }
+          }
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.example.tutorial.PatchProtos.AddressBookPatch parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.example.tutorial.PatchProtos.AddressBookPatch) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.util.List<com.example.tutorial.PatchProtos.PersonPatch> people_ =
+        java.util.Collections.emptyList();
+      private void ensurePeopleIsMutable() {
+        if (!((bitField0_ & 0x00000001) != 0)) {
+          people_ = new java.util.ArrayList<com.example.tutorial.PatchProtos.PersonPatch>(people_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          com.example.tutorial.PatchProtos.PersonPatch, com.example.tutorial.PatchProtos.PersonPatch.Builder, com.example.tutorial.PatchProtos.PersonPatchOrBuilder> peopleBuilder_;
+
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public java.util.List<com.example.tutorial.PatchProtos.PersonPatch> getPeopleList() {
+        if (peopleBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(people_);
+        } else {
+          return peopleBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public int getPeopleCount() {
+        if (peopleBuilder_ == null) {
+          return people_.size();
+        } else {
+          return peopleBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public com.example.tutorial.PatchProtos.PersonPatch getPeople(int index) {
+        if (peopleBuilder_ == null) {
+          return people_.get(index);
+        } else {
+          return peopleBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public Builder setPeople(
+          int index, com.example.tutorial.PatchProtos.PersonPatch value) {
+        if (peopleBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensurePeopleIsMutable();
+          people_.set(index, value);
+          onChanged();
+        } else {
+          peopleBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public Builder setPeople(
+          int index, com.example.tutorial.PatchProtos.PersonPatch.Builder builderForValue) {
+        if (peopleBuilder_ == null) {
+          ensurePeopleIsMutable();
+          people_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          peopleBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public Builder addPeople(com.example.tutorial.PatchProtos.PersonPatch value) {
+        if (peopleBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensurePeopleIsMutable();
+          people_.add(value);
+          onChanged();
+        } else {
+          peopleBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public Builder addPeople(
+          int index, com.example.tutorial.PatchProtos.PersonPatch value) {
+        if (peopleBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensurePeopleIsMutable();
+          people_.add(index, value);
+          onChanged();
+        } else {
+          peopleBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public Builder addPeople(
+          com.example.tutorial.PatchProtos.PersonPatch.Builder builderForValue) {
+        if (peopleBuilder_ == null) {
+          ensurePeopleIsMutable();
+          people_.add(builderForValue.build());
+          onChanged();
+        } else {
+          peopleBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public Builder addPeople(
+          int index, com.example.tutorial.PatchProtos.PersonPatch.Builder builderForValue) {
+        if (peopleBuilder_ == null) {
+          ensurePeopleIsMutable();
+          people_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          peopleBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public Builder addAllPeople(
+          java.lang.Iterable<? extends com.example.tutorial.PatchProtos.PersonPatch> values) {
+        if (peopleBuilder_ == null) {
+          ensurePeopleIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, people_);
+          onChanged();
+        } else {
+          peopleBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public Builder clearPeople() {
+        if (peopleBuilder_ == null) {
+          people_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+          onChanged();
+        } else {
+          peopleBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public Builder removePeople(int index) {
+        if (peopleBuilder_ == null) {
+          ensurePeopleIsMutable();
+          people_.remove(index);
+          onChanged();
+        } else {
+          peopleBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public com.example.tutorial.PatchProtos.PersonPatch.Builder getPeopleBuilder(
+          int index) {
+        return getPeopleFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public com.example.tutorial.PatchProtos.PersonPatchOrBuilder getPeopleOrBuilder(
+          int index) {
+        if (peopleBuilder_ == null) {
+          return people_.get(index);  } else {
+          return peopleBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public java.util.List<? extends com.example.tutorial.PatchProtos.PersonPatchOrBuilder> 
+           getPeopleOrBuilderList() {
+        if (peopleBuilder_ != null) {
+          return peopleBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(people_);
+        }
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public com.example.tutorial.PatchProtos.PersonPatch.Builder addPeopleBuilder() {
+        return getPeopleFieldBuilder().addBuilder(
+            com.example.tutorial.PatchProtos.PersonPatch.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public com.example.tutorial.PatchProtos.PersonPatch.Builder addPeopleBuilder(
+          int index) {
+        return getPeopleFieldBuilder().addBuilder(
+            index, com.example.tutorial.PatchProtos.PersonPatch.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .tutorial.PersonPatch people = 1;</code>
+       */
+      public java.util.List<com.example.tutorial.PatchProtos.PersonPatch.Builder> 
+           getPeopleBuilderList() {
+        return getPeopleFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          com.example.tutorial.PatchProtos.PersonPatch, com.example.tutorial.PatchProtos.PersonPatch.Builder, com.example.tutorial.PatchProtos.PersonPatchOrBuilder> 
+          getPeopleFieldBuilder() {
+        if (peopleBuilder_ == null) {
+          peopleBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              com.example.tutorial.PatchProtos.PersonPatch, com.example.tutorial.PatchProtos.PersonPatch.Builder, com.example.tutorial.PatchProtos.PersonPatchOrBuilder>(
+                  people_,
+                  ((bitField0_ & 0x00000001) != 0),
+                  getParentForChildren(),
+                  isClean());
+          people_ = null;
+        }
+        return peopleBuilder_;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:tutorial.AddressBookPatch)
+    }
+
+    // @@protoc_insertion_point(class_scope:tutorial.AddressBookPatch)
+    private static final com.example.tutorial.PatchProtos.AddressBookPatch DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new com.example.tutorial.PatchProtos.AddressBookPatch();
+    }
+
+    public static com.example.tutorial.PatchProtos.AddressBookPatch getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<AddressBookPatch>
+        PARSER = new com.google.protobuf.AbstractParser<AddressBookPatch>() {
+      @java.lang.Override
+      public AddressBookPatch parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new AddressBookPatch(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<AddressBookPatch> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<AddressBookPatch> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.example.tutorial.PatchProtos.AddressBookPatch getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface PersonPatchOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:tutorial.PersonPatch)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>string name = 1;</code>
+     * @return The name.
+     */
+    java.lang.String getName();
+    /**
+     * <code>string name = 1;</code>
+     * @return The bytes for name.
+     */
+    com.google.protobuf.ByteString
+        getNameBytes();
+
+    /**
+     * <pre>
+     * Index among the people sharing the name, ordered by id; 0 for unique names.
+     * </pre>
+     *
+     * <code>int32 occurrence = 2;</code>
+     * @return The occurrence.
+     */
+    int getOccurrence();
+
+    /**
+     * <code>.tutorial.PersonPatch.Kind kind = 3;</code>
+     * @return The enum numeric value on the wire for kind.
+     */
+    int getKindValue();
+    /**
+     * <code>.tutorial.PersonPatch.Kind kind = 3;</code>
+     * @return The kind.
+     */
+    com.example.tutorial.PatchProtos.PersonPatch.Kind getKind();
+
+    /**
+     * <pre>
+     * ADD: the new person. UPDATE: the new values of the fields listed in changed_fields; unset ones are cleared.
+     * </pre>
+     *
+     * <code>.tutorial.Person person = 4;</code>
+     * @return Whether the person field is set.
+     */
+    boolean hasPerson();
+    /**
+     * <pre>
+     * ADD: the new person. UPDATE: the new values of the fields listed in changed_fields; unset ones are cleared.
+     * </pre>
+     *
+     * <code>.tutorial.Person person = 4;</code>
+     * @return The person.
+     */
+    com.example.tutorial.AddressBookProtos.Person getPerson();
+    /**
+     * <pre>
+     * ADD: the new person. UPDATE: the new values of the fields listed in changed_fields; unset ones are cleared.
+     * </pre>
+     *
+     * <code>.tutorial.Person person = 4;</code>
+     */
+    com.example.tutorial.AddressBookProtos.PersonOrBuilder getPersonOrBuilder();
+
+    /**
+     * <code>repeated int32 changed_fields = 5;</code>
+     * @return A list containing the changedFields.
+     */
+    java.util.List<java.lang.Integer> getChangedFieldsList();
+    /**
+     * <code>repeated int32 changed_fields = 5;</code>
+     * @return The count of changedFields.
+     */
+    int getChangedFieldsCount();
+    /**
+     * <code>repeated int32 changed_fields = 5;</code>
+     * @param index The index of the element to return.
+     * @return The changedFields at the given index.
+     */
+    int getChangedFields(int index);
+  }
+  /**
+   * Protobuf type {@code tutorial.PersonPatch}
+   */
+  public  static final class PersonPatch extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:tutorial.PersonPatch)
+      PersonPatchOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use PersonPatch.newBuilder() to construct.
+    private PersonPatch(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private PersonPatch() {
+      name_ = "";
+      kind_ = 0;
+      changedFields_ = emptyIntList();
+    }
+
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new PersonPatch();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private PersonPatch(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 10: {
+              java.lang.String s = input.readStringRequireUtf8();
+
+              name_ = s;
+              break;
+            }
+            case 16: {
+
+              occurrence_ = input.readInt32();
+              break;
+            }
+            case 24: {
+              int rawValue = input.readEnum();
+
+              kind_ = rawValue;
+              break;
+            }
+            case 34: {
+              com.example.tutorial.AddressBookProtos.Person.Builder subBuilder = null;
+              if (person_ != null) {
+                subBuilder = person_.toBuilder();
+              }
+              person_ = input.readMessage(com.example.tutorial.AddressBookProtos.Person.parser(), extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(person_);
+                person_ = subBuilder.buildPartial();
+              }
+
+              break;
+            }
+            case 40: {
+              if (!((mutable_bitField0_ & 0x00000001) != 0)) {
+                changedFields_ = newIntList();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              changedFields_.addInt(input.readInt32());
+              break;
+            }
+            case 42: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000001) != 0) && input.getBytesUntilLimit() > 0) {
+                changedFields_ = newIntList();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                changedFields_.addInt(input.readInt32());
+              }
+              input.popLimit(limit);
+              break;
+            }
+            default: {
+              if (!parseUnknownField(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000001) != 0)) {
+          changedFields_.makeImmutable(); // C
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.example.tutorial.PatchProtos.internal_static_tutorial_PersonPatch_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.example.tutorial.PatchProtos.internal_static_tutorial_PersonPatch_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.example.tutorial.PatchProtos.PersonPatch.class, com.example.tutorial.PatchProtos.PersonPatch.Builder.class);
+    }
+
+    /**
+     * Protobuf enum {@code tutorial.PersonPatch.Kind}
+     */
+    public enum Kind
+        implements com.google.protobuf.ProtocolMessageEnum {
+      /**
+       * <code>UPDATE = 0;</code>
+       */
+      UPDATE(0),
+      /**
+       * <code>ADD = 1;</code>
+       */
+      ADD(1),
+      /**
+       * <code>REMOVE = 2;</code>
+       */
+      REMOVE(2),
+      UNRECOGNIZED(-1),
+      ;
+
+      /**
+       * <code>UPDATE = 0;</code>
+       */
+      public static final int UPDATE_VALUE = 0;
+      /**
+       * <code>ADD = 1;</code>
+       */
+      public static final int ADD_VALUE = 1;
+      /**
+       * <code>REMOVE = 2;</code>
+       */
+      public static final int REMOVE_VALUE = 2;
+
+
+      public final int getNumber() {
+        if (this == UNRECOGNIZED) {
+          throw new java.lang.IllegalArgumentException(
+              "Can't get the number of an unknown enum value.");
+        }
+        return value;
+      }
+
+      /**
+       * @param value The numeric wire value of the corresponding enum entry.
+       * @return The enum associated with the given numeric wire value.
+       * @deprecated Use {@link #forNumber(int)} instead.
+       */
+      @java.lang.Deprecated
+      public static Kind valueOf(int value) {
+        return forNumber(value);
+      }
+
+      /**
+       * @param value The numeric wire value of the corresponding enum entry.
+       * @return The enum associated with the given numeric wire value.
+       */
+      public static Kind forNumber(int value) {
+        switch (value) {
+          case 0: return UPDATE;
+          case 1: return ADD;
+          case 2: return REMOVE;
+          default: return null;
+        }
+      }
+
+      public static com.google.protobuf.Internal.EnumLiteMap<Kind>
+          internalGetValueMap() {
+        return internalValueMap;
+      }
+      private static final com.google.protobuf.Internal.EnumLiteMap<
+          Kind> internalValueMap =
+            new com.google.protobuf.Internal.EnumLiteMap<Kind>() {
+              public Kind findValueByNumber(int number) {
+                return Kind.forNumber(number);
+              }
+            };
+
+      public final com.google.protobuf.Descriptors.EnumValueDescriptor
+          getValueDescriptor() {
+        return getDescriptor().getValues().get(ordinal());
+      }
+      public final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptorForType() {
+        return getDescriptor();
+      }
+      public static final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptor() {
+        return com.example.tutorial.PatchProtos.PersonPatch.getDescriptor().getEnumTypes().get(0);
+      }
+
+      private static final Kind[] VALUES = values();
+
+      public static Kind valueOf(
+          com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
+        if (desc.getType() != getDescriptor()) {
+          throw new java.lang.IllegalArgumentException(
+            "EnumValueDescriptor is not for this type.");
+        }
+        if (desc.getIndex() == -1) {
+          return UNRECOGNIZED;
+        }
+        return VALUES[desc.getIndex()];
+      }
+
+      private final int value;
+
+      private Kind(int value) {
+        this.value = value;
+      }
+
+      // @@protoc_insertion_point(enum_scope:tutorial.PersonPatch.Kind)
+    }
+
+    public static final int NAME_FIELD_NUMBER = 1;
+    private volatile java.lang.Object name_;
+    /**
+     * <code>string name = 1;</code>
+     * @return The name.
+     */
+    public java.lang.String getName() {
+      java.lang.Object ref = name_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        name_ = s;
+        return s;
+      }
+    }
+    /**
+     * <code>string name = 1;</code>
+     * @return The bytes for name.
+     */
+    public com.google.protobuf.ByteString
+        getNameBytes() {
+      java.lang.Object ref = name_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        name_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int OCCURRENCE_FIELD_NUMBER = 2;
+    private int occurrence_;
+    /**
+     * <pre>
+     * Index among the people sharing the name, ordered by id; 0 for unique names.
+     * </pre>
+     *
+     * <code>int32 occurrence = 2;</code>
+     * @return The occurrence.
+     */
+    public int getOccurrence() {
+      return occurrence_;
+    }
+
+    public static final int KIND_FIELD_NUMBER = 3;
+    private int kind_;
+    /**
+     * <code>.tutorial.PersonPatch.Kind kind = 3;</code>
+     * @return The enum numeric value on the wire for kind.
+     */
+    public int getKindValue() {
+      return kind_;
+    }
+    /**
+     * <code>.tutorial.PersonPatch.Kind kind = 3;</code>
+     * @return The kind.
+     */
+    public com.example.tutorial.PatchProtos.PersonPatch.Kind getKind() {
+      @SuppressWarnings("deprecation")
+      com.example.tutorial.PatchProtos.PersonPatch.Kind result = com.example.tutorial.PatchProtos.PersonPatch.Kind.valueOf(kind_);
+      return result == null ? com.example.tutorial.PatchProtos.PersonPatch.Kind.UNRECOGNIZED : result;
+    }
+
+    public static final int PERSON_FIELD_NUMBER = 4;
+    private com.example.tutorial.AddressBookProtos.Person person_;
+    /**
+     * <pre>
+     * ADD: the new person. UPDATE: the new values of the fields listed in changed_fields; unset ones are cleared.
+     * </pre>
+     *
+     * <code>.tutorial.Person person = 4;</code>
+     * @return Whether the person field is set.
+     */
+    public boolean hasPerson() {
+      return person_ != null;
+    }
+    /**
+     * <pre>
+     * ADD: the new person. UPDATE: the new values of the fields listed in changed_fields; unset ones are cleared.
+     * </pre>
+     *
+     * <code>.tutorial.Person person = 4;</code>
+     * @return The person.
+     */
+    public com.example.tutorial.AddressBookProtos.Person getPerson() {
+      return person_ == null ? com.example.tutorial.AddressBookProtos.Person.getDefaultInstance() : person_;
+    }
+    /**
+     * <pre>
+     * ADD: the new person. UPDATE: the new values of the fields listed in changed_fields; unset ones are cleared.
+     * </pre>
+     *
+     * <code>.tutorial.Person person = 4;</code>
+     */
+    public com.example.tutorial.AddressBookProtos.PersonOrBuilder getPersonOrBuilder() {
+      return getPerson();
+    }
+
+    public static final int CHANGED_FIELDS_FIELD_NUMBER = 5;
+    private com.google.protobuf.Internal.IntList changedFields_;
+    /**
+     * <code>repeated int32 changed_fields = 5;</code>
+     * @return A list containing the changedFields.
+     */
+    public java.util.List<java.lang.Integer>
+        getChangedFieldsList() {
+      return changedFields_;
+    }
+    /**
+     * <code>repeated int32 changed_fields = 5;</code>
+     * @return The count of changedFields.
+     */
+    public int getChangedFieldsCount() {
+      return changedFields_.size();
+    }
+    /**
+     * <code>repeated int32 changed_fields = 5;</code>
+     * @param index The index of the element to return.
+     * @return The changedFields at the given index.
+     */
+    public int getChangedFields(int index) {
+      return changedFields_.getInt(index);
+    }
+    private int changedFieldsMemoizedSerializedSize = -1;
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (!getNameBytes().isEmpty()) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, name_);
+      }
+      if (occurrence_ != 0) {
+        output.writeInt32(2, occurrence_);
+      }
+      if (kind_ != com.example.tutorial.PatchProtos.PersonPatch.Kind.UPDATE.getNumber()) {
+        output.writeEnum(3, kind_);
+      }
+      if (person_ != null) {
+        output.writeMessage(4, getPerson());
+      }
+      if (getChangedFieldsList().size() > 0) {
+        output.writeUInt32NoTag(42);
+        output.writeUInt32NoTag(changedFieldsMemoizedSerializedSize);
+      }
+      for (int i = 0; i < changedFields_.size(); i++) {
+        output.writeInt32NoTag(changedFields_.getInt(i));
+      }
+      unknownFields.writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (!getNameBytes().isEmpty()) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, name_);
+      }
+      if (occurrence_ != 0) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(2, occurrence_);
+      }
+      if (kind_ != com.example.tutorial.PatchProtos.PersonPatch.Kind.UPDATE.getNumber()) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(3, kind_);
+      }
+      if (person_ != null) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(4, getPerson());
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < changedFields_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt32SizeNoTag(changedFields_.getInt(i));
+        }
+        size += dataSize;
+        if (!getChangedFieldsList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        changedFieldsMemoizedSerializedSize = dataSize;
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof com.example.tutorial.PatchProtos.PersonPatch)) {
+        return super.equals(obj);
+      }
+      com.example.tutorial.PatchProtos.PersonPatch other = (com.example.tutorial.PatchProtos.PersonPatch) obj;
+
+      if (!getName()
+          .equals(other.getName())) return false;
+      if (getOccurrence()
+          != other.getOccurrence()) return false;
+      if (kind_ != other.kind_) return false;
+      if (hasPerson() != other.hasPerson()) return false;
+      if (hasPerson()) {
+        if (!getPerson()
+            .equals(other.getPerson())) return false;
+      }
+      if (!getChangedFieldsList()
+          .equals(other.getChangedFieldsList())) return false;
+      if (!unknownFields.equals(other.unknownFields)) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      hash = (37 * hash) + NAME_FIELD_NUMBER;
+      hash = (53 * hash) + getName().hashCode();
+      hash = (37 * hash) + OCCURRENCE_FIELD_NUMBER;
+      hash = (53 * hash) + getOccurrence();
+      hash = (37 * hash) + KIND_FIELD_NUMBER;
+      hash = (53 * hash) + kind_;
+      if (hasPerson()) {
+        hash = (37 * hash) + PERSON_FIELD_NUMBER;
+        hash = (53 * hash) + getPerson().hashCode();
+      }
+      if (getChangedFieldsCount() > 0) {
+        hash = (37 * hash) + CHANGED_FIELDS_FIELD_NUMBER;
+        hash = (53 * hash) + getChangedFieldsList().hashCode();
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static com.example.tutorial.PatchProtos.PersonPatch parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.example.tutorial.PatchProtos.PersonPatch parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.example.tutorial.PatchProtos.PersonPatch parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.example.tutorial.PatchProtos.PersonPatch parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.example.tutorial.PatchProtos.PersonPatch parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.example.tutorial.PatchProtos.PersonPatch parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.example.tutorial.PatchProtos.PersonPatch parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.example.tutorial.PatchProtos.PersonPatch parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static com.example.tutorial.PatchProtos.PersonPatch parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static com.example.tutorial.PatchProtos.PersonPatch parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static com.example.tutorial.PatchProtos.PersonPatch parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static com.example.tutorial.PatchProtos.PersonPatch parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(com.example.tutorial.PatchProtos.PersonPatch prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code tutorial.PersonPatch}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:tutorial.PersonPatch)
+        com.example.tutorial.PatchProtos.PersonPatchOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.example.tutorial.PatchProtos.internal_static_tutorial_PersonPatch_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.example.tutorial.PatchProtos.internal_static_tutorial_PersonPatch_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.example.tutorial.PatchProtos.PersonPatch.class, com.example.tutorial.PatchProtos.PersonPatch.Builder.class);
+      }
+
+      // Construct using com.example.tutorial.PatchProtos.PersonPatch.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        name_ = "";
+
+        occurrence_ = 0;
+
+        kind_ = 0;
+
+        if (personBuilder_ == null) {
+          person_ = null;
+        } else {
+          person_ = null;
+          personBuilder_ = null;
+        }
+        changedFields_ = emptyIntList();
+        bitField0_ = (bitField0_ & ~0x00000001);
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.example.tutorial.PatchProtos.internal_static_tutorial_PersonPatch_descriptor;
+      }
+
+      @java.lang.Override
+      public com.example.tutorial.PatchProtos.PersonPatch getDefaultInstanceForType() {
+        return com.example.tutorial.PatchProtos.PersonPatch.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public com.example.tutorial.PatchProtos.PersonPatch build() {
+        com.example.tutorial.PatchProtos.PersonPatch result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public com.example.tutorial.PatchProtos.PersonPatch buildPartial() {
+        com.example.tutorial.PatchProtos.PersonPatch result = new com.example.tutorial.PatchProtos.PersonPatch(this);
+        int from_bitField0_ = bitField0_;
+        result.name_ = name_;
+        result.occurrence_ = occurrence_;
+        result.kind_ = kind_;
+        if (personBuilder_ == null) {
+          result.person_ = person_;
+        } else {
+          result.person_ = personBuilder_.build();
+        }
+        if (((bitField0_ & 0x00000001) != 0)) {
+          changedFields_.makeImmutable();
+          bitField0_ = (bitField0_ & ~0x00000001);
+        }
+        result.changedFields_ = changedFields_;
+        onBuilt();
+        return result;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof com.example.tutorial.PatchProtos.PersonPatch) {
+          return mergeFrom((com.example.tutorial.PatchProtos.PersonPatch)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.example.tutorial.PatchProtos.PersonPatch other) {
+        if (other == com.example.tutorial.PatchProtos.PersonPatch.getDefaultInstance()) return this;
+        if (!other.getName().isEmpty()) {
+          name_ = other.name_;
+          onChanged();
+        }
+        if (other.getOccurrence() != 0) {
+          setOccurrence(other.getOccurrence());
+        }
+        if (other.kind_ != 0) {
+          setKindValue(other.getKindValue());
+        }
+        if (other.hasPerson()) {
+          mergePerson(other.getPerson());
+        }
+        if (!other.changedFields_.isEmpty()) {
+          if (changedFields_.isEmpty()) {
+            changedFields_ = other.changedFields_;
+            bitField0_ = (bitField0_ & ~0x00000001);
+          } else {
+            ensureChangedFieldsIsMutable();
+            changedFields_.addAll(other.changedFields_);
+          }
+          onChanged();
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.example.tutorial.PatchProtos.PersonPatch parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.example.tutorial.PatchProtos.PersonPatch) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object name_ = "";
+      /**
+       * <code>string name = 1;</code>
+       * @return The name.
+       */
+      public java.lang.String getName() {
+        java.lang.Object ref = name_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          name_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>string name = 1;</code>
+       * @return The bytes for name.
+       */
+      public com.google.protobuf.ByteString
+          getNameBytes() {
+        java.lang.Object ref = name_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          name_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>string name = 1;</code>
+       * @param value The name to set.
+       * @return This builder for chaining.
+       */
+      public Builder setName(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  
+        name_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string name = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearName() {
+        
+        name_ = getDefaultInstance().getName();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>string name = 1;</code>
+       * @param value The bytes for name to set.
+       * @return This builder for chaining.
+       */
+      public Builder setNameBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  checkByteStringIsUtf8(value);
+        
+        name_ = value;
+        onChanged();
+        return this;
+      }
+
+      private int occurrence_ ;
+      /**
+       * <pre>
+       * Index among the people sharing the name, ordered by id; 0 for unique names.
+       * </pre>
+       *
+       * <code>int32 occurrence = 2;</code>
+       * @return The occurrence.
+       */
+      public int getOccurrence() {
+        return occurrence_;
+      }
+      /**
+       * <pre>
+       * Index among the people sharing the name, ordered by id; 0 for unique names.
+       * </pre>
+       *
+       * <code>int32 occurrence = 2;</code>
+       * @param value The occurrence to set.
+       * @return This builder for chaining.
+       */
+      public Builder setOccurrence(int value) {
+        
+        occurrence_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Index among the people sharing the name, ordered by id; 0 for unique names.
+       * </pre>
+       *
+       * <code>int32 occurrence = 2;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearOccurrence() {
+        
+        occurrence_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private int kind_ = 0;
+      /**
+       * <code>.tutorial.PersonPatch.Kind kind = 3;</code>
+       * @return The enum numeric value on the wire for kind.
+       */
+      public int getKindValue() {
+        return kind_;
+      }
+      /**
+       * <code>.tutorial.PersonPatch.Kind kind = 3;</code>
+       * @param value The enum numeric value on the wire for kind to set.
+       * @return This builder for chaining.
+       */
+      public Builder setKindValue(int value) {
+        kind_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>.tutorial.PersonPatch.Kind kind = 3;</code>
+       * @return The kind.
+       */
+      public com.example.tutorial.PatchProtos.PersonPatch.Kind getKind() {
+        @SuppressWarnings("deprecation")
+        com.example.tutorial.PatchProtos.PersonPatch.Kind result = com.example.tutorial.PatchProtos.PersonPatch.Kind.valueOf(kind_);
+        return result == null ? com.example.tutorial.PatchProtos.PersonPatch.Kind.UNRECOGNIZED : result;
+      }
+      /**
+       * <code>.tutorial.PersonPatch.Kind kind = 3;</code>
+       * @param value The kind to set.
+       * @return This builder for chaining.
+       */
+      public Builder setKind(com.example.tutorial.PatchProtos.PersonPatch.Kind value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        
+        kind_ = value.getNumber();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>.tutorial.PersonPatch.Kind kind = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearKind() {
+        
+        kind_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private com.example.tutorial.AddressBookProtos.Person person_;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          com.example.tutorial.AddressBookProtos.Person, com.example.tutorial.AddressBookProtos.Person.Builder, com.example.tutorial.AddressBookProtos.PersonOrBuilder> personBuilder_;
+      /**
+       * <pre>
+       * ADD: the new person. UPDATE: the new values of the fields listed in changed_fields; unset ones are cleared.
+       * </pre>
+       *
+       * <code>.tutorial.Person person = 4;</code>
+       * @return Whether the person field is set.
+       */
+      public boolean hasPerson() {
+        return personBuilder_ != null || person_ != null;
+      }
+      /**
+       * <pre>
+       * ADD: the new person. UPDATE: the new values of the fields listed in changed_fields; unset ones are cleared.
+       * </pre>
+       *
+       * <code>.tutorial.Person person = 4;</code>
+       * @return The person.
+       */
+      public com.example.tutorial.AddressBookProtos.Person getPerson() {
+        if (personBuilder_ == null) {
+          return person_ == null ? com.example.tutorial.AddressBookProtos.Person.getDefaultInstance() : person_;
+        } else {
+          return personBuilder_.getMessage();
+        }
+      }
+      /**
+       * <pre>
+       * ADD: the new person. UPDATE: the new values of the fields listed in changed_fields; unset ones are cleared.
+       * </pre>
+       *
+       * <code>.tutorial.Person person = 4;</code>
+       */
+      public Builder setPerson(com.example.tutorial.AddressBookProtos.Person value) {
+        if (personBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          person_ = value;
+          onChanged();
+        } else {
+          personBuilder_.setMessage(value);
+        }
+
+        return this;
+      }
+      /**
+       * <pre>
+       * ADD: the new person. UPDATE: the new values of the fields listed in changed_fields; unset ones are cleared.
+       * </pre>
+       *
+       * <code>.tutorial.Person person = 4;</code>
+       */
+      public Builder setPerson(
+          com.example.tutorial.AddressBookProtos.Person.Builder builderForValue) {
+        if (personBuilder_ == null) {
+          person_ = builderForValue.build();
+          onChanged();
+        } else {
+          personBuilder_.setMessage(builderForValue.build());
+        }
+
+        return this;
+      }
+      /**
+       * <pre>
+       * ADD: the new person. UPDATE: the new values of the fields listed in changed_fields; unset ones are cleared.
+       * </pre>
+       *
+       * <code>.tutorial.Person person = 4;</code>
+       */
+      public Builder mergePerson(com.example.tutorial.AddressBookProtos.Person value) {
+        if (personBuilder_ == null) {
+          if (person_ != null) {
+            person_ =
+              com.example.tutorial.AddressBookProtos.Person.newBuilder(person_).mergeFrom(value).buildPartial();
+          } else {
+            person_ = value;
+          }
+          onChanged();
+        } else {
+          personBuilder_.mergeFrom(value);
+        }
+
+        return this;
+      }
+      /**
+       * <pre>
+       * ADD: the new person. UPDATE: the new values of the fields listed in changed_fields; unset ones are cleared.
+       * </pre>
+       *
+       * <code>.tutorial.Person person = 4;</code>
+       */
+      public Builder clearPerson() {
+        if (personBuilder_ == null) {
+          person_ = null;
+          onChanged();
+        } else {
+          person_ = null;
+          personBuilder_ = null;
+        }
+
+        return this;
+      }
+      /**
+       * <pre>
+       * ADD: the new person. UPDATE: the new values of the fields listed in changed_fields; unset ones are cleared.
+       * </pre>
+       *
+       * <code>.tutorial.Person person = 4;</code>
+       */
+      public com.example.tutorial.AddressBookProtos.Person.Builder getPersonBuilder() {
+        
+        onChanged();
+        return getPersonFieldBuilder().getBuilder();
+      }
+      /**
+       * <pre>
+       * ADD: the new person. UPDATE: the new values of the fields listed in changed_fields; unset ones are cleared.
+       * </pre>
+       *
+       * <code>.tutorial.Person person = 4;</code>
+       */
+      public com.example.tutorial.AddressBookProtos.PersonOrBuilder getPersonOrBuilder() {
+        if (personBuilder_ != null) {
+          return personBuilder_.getMessageOrBuilder();
+        } else {
+          return person_ == null ?
+              com.example.tutorial.AddressBookProtos.Person.getDefaultInstance() : person_;
+        }
+      }
+      /**
+       * <pre>
+       * ADD: the new person. UPDATE: the new values of the fields listed in changed_fields; unset ones are cleared.
+       * </pre>
+       *
+       * <code>.tutorial.Person person = 4;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          com.example.tutorial.AddressBookProtos.Person, com.example.tutorial.AddressBookProtos.Person.Builder, com.example.tutorial.AddressBookProtos.PersonOrBuilder> 
+          getPersonFieldBuilder() {
+        if (personBuilder_ == null) {
+          personBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              com.example.tutorial.AddressBookProtos.Person, com.example.tutorial.AddressBookProtos.Person.Builder, com.example.tutorial.AddressBookProtos.PersonOrBuilder>(
+                  getPerson(),
+                  getParentForChildren(),
+                  isClean());
+          person_ = null;
+        }
+        return personBuilder_;
+      }
+
+      private com.google.protobuf.Internal.IntList changedFields_ = emptyIntList();
+      private void ensureChangedFieldsIsMutable() {
+        if (!((bitField0_ & 0x00000001) != 0)) {
+          changedFields_ = mutableCopy(changedFields_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+      /**
+       * <code>repeated int32 changed_fields = 5;</code>
+       * @return A list containing the changedFields.
+       */
+      public java.util.List<java.lang.Integer>
+          getChangedFieldsList() {
+        return ((bitField0_ & 0x00000001) != 0) ?
+                 java.util.Collections.unmodifiableList(changedFields_) : changedFields_;
+      }
+      /**
+       * <code>repeated int32 changed_fields = 5;</code>
+       * @return The count of changedFields.
+       */
+      public int getChangedFieldsCount() {
+        return changedFields_.size();
+      }
+      /**
+       * <code>repeated int32 changed_fields = 5;</code>
+       * @param index The index of the element to return.
+       * @return The changedFields at the given index.
+       */
+      public int getChangedFields(int index) {
+        return changedFields_.getInt(index);
+      }
+      /**
+       * <code>repeated int32 changed_fields = 5;</code>
+       * @param index The index to set the value at.
+       * @param value The changedFields to set.
+       * @return This builder for chaining.
+       */
+      public Builder setChangedFields(
+          int index, int value) {
+        ensureChangedFieldsIsMutable();
+        changedFields_.setInt(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 changed_fields = 5;</code>
+       * @param value The changedFields to add.
+       * @return This builder for chaining.
+       */
+      public Builder addChangedFields(int value) {
+        ensureChangedFieldsIsMutable();
+        changedFields_.addInt(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 changed_fields = 5;</code>
+       * @param values The changedFields to add.
+       * @return This builder for chaining.
+       */
+      public Builder addAllChangedFields(
+          java.lang.Iterable<? extends java.lang.Integer> values) {
+        ensureChangedFieldsIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, changedFields_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 changed_fields = 5;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearChangedFields() {
+        changedFields_ = emptyIntList();
+        bitField0_ = (bitField0_ & ~0x00000001);
+        onChanged();
+        return this;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:tutorial.PersonPatch)
+    }
+
+    // @@protoc_insertion_point(class_scope:tutorial.PersonPatch)
+    private static final com.example.tutorial.PatchProtos.PersonPatch DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new com.example.tutorial.PatchProtos.PersonPatch();
+    }
+
+    public static com.example.tutorial.PatchProtos.PersonPatch getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<PersonPatch>
+        PARSER = new com.google.protobuf.AbstractParser<PersonPatch>() {
+      @java.lang.Override
+      public PersonPatch parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new PersonPatch(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<PersonPatch> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<PersonPatch> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.example.tutorial.PatchProtos.PersonPatch getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_tutorial_AddressBookPatch_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_tutorial_AddressBookPatch_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_tutorial_PersonPatch_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_tutorial_PersonPatch_fieldAccessorTable;
+
+  public static com.google.protobuf.Descriptors.FileDescriptor
+      getDescriptor() {
+    return descriptor;
+  }
+  private static  com.google.protobuf.Descriptors.FileDescriptor
+      descriptor;
+  static {
+    java.lang.String[] descriptorData = {
+      "\n\021proto/patch.proto\022\010tutorial\032\027proto/add" +
+      "ressbook.proto\"9\n\020AddressBookPatch\022%\n\006pe" +
+      "ople\030\001 \003(\0132\025.tutorial.PersonPatch\"\274\001\n\013Pe" +
+      "rsonPatch\022\014\n\004name\030\001 \001(\t\022\022\n\noccurrence\030\002 " +
+      "\001(\005\022(\n\004kind\030\003 \001(\0162\032.tutorial.PersonPatch" +
+      ".Kind\022 \n\006person\030\004 \001(\0132\020.tutorial.Person\022" +
+      "\026\n\016changed_fields\030\005 \003(\005\"\'\n\004Kind\022\n\n\006UPDAT" +
+      "E\020\000\022\007\n\003ADD\020\001\022\n\n\006REMOVE\020\002B#\n\024com.example." +
+      "tutorialB\013PatchProtosb\006proto3"
+    };
+    descriptor = com.google.protobuf.Descriptors.FileDescriptor
+      .internalBuildGeneratedFileFrom(descriptorData,
+        new com.google.protobuf.Descriptors.FileDescriptor[] {
+          com.example.tutorial.AddressBookProtos.getDescriptor(),
+        });
+    internal_static_tutorial_AddressBookPatch_descriptor =
+      getDescriptor().getMessageTypes().get(0);
+    internal_static_tutorial_AddressBookPatch_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_tutorial_AddressBookPatch_descriptor,
+        new java.lang.String[] { "People", });
+    internal_static_tutorial_PersonPatch_descriptor =
+      getDescriptor().getMessageTypes().get(1);
+    internal_static_tutorial_PersonPatch_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_tutorial_PersonPatch_descriptor,
+        new java.lang.String[] { "Name", "Occurrence", "Kind", "Person", "ChangedFields", });
+    com.example.tutorial.AddressBookProtos.getDescriptor();
+  }
+
+  // @@protoc_insertion_point(outer_class_scope)
+}
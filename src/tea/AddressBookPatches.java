@@ -0,0 +1,198 @@
+package tea;
+
+import com.example.tutorial.AddressBookProtos.AddressBook;
+import com.example.tutorial.AddressBookProtos.Person;
+import com.example.tutorial.PatchProtos.AddressBookPatch;
+import com.example.tutorial.PatchProtos.PersonPatch;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.ProtocolMessageEnum;
+import tea.comparator.Difference;
+import tea.comparator.DifferenceSink;
+import tea.comparator.Differencer;
+import tea.comparator.MessageDifferencers;
+import tea.comparator.Occurrence;
+import tea.comparator.Path;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static tea.comparator.RecursiveDifferencer.diffWithEquals;
+
+// Binary patches between address books (proto/patch.proto): the people added and removed, and for changed
+// people only the fields that changed, so that replicating a small change costs about as many bytes as the change.
+public class AddressBookPatches {
+    private static final FieldDescriptor PEOPLE = AddressBook.getDescriptor().findFieldByNumber(AddressBook.PEOPLE_FIELD_NUMBER);
+    private static final FieldDescriptor PHONES = Person.getDescriptor().findFieldByNumber(Person.PHONES_FIELD_NUMBER);
+
+    // AddressBookPatches diff LEFT RIGHT PATCH
+    // AddressBookPatches apply BOOK PATCH OUT
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4 || !(args[0].equals("diff") || args[0].equals("apply"))) {
+            System.err.println("Usage:  AddressBookPatches diff LEFT RIGHT PATCH | apply BOOK PATCH OUT");
+            System.exit(-1);
+        }
+
+        if (args[0].equals("diff")) {
+            var patch = diff(read(args[1]), read(args[2]));
+            try (var output = new FileOutputStream(args[3])) {
+                patch.writeTo(output);
+            }
+        } else {
+            var book = read(args[1]).toBuilder();
+            try (var input = new FileInputStream(args[2])) {
+                apply(AddressBookPatch.parseFrom(input), book);
+            }
+            try (var output = new FileOutputStream(args[3])) {
+                book.build().writeTo(output);
+            }
+        }
+    }
+
+    // Reports differences at the granularity of a patch: whole people, or whole fields of a person.
+    public static Differencer<AddressBook, AddressBook> patchDifferencer() {
+        return MessageDifferencers.builder(AddressBook.getDefaultInstance())
+                .keyByAllowingDuplicates(PEOPLE, "name", "id")
+                .override(PHONES, diffWithEquals())
+                .compile();
+    }
+
+    public static AddressBookPatch diff(AddressBook left, AddressBook right) {
+        var writer = new PatchWriter();
+        patchDifferencer().differences(Path.root(), left, right, writer);
+        return writer.patch.build();
+    }
+
+    // Folds the patch into book, which must hold the left book the patch was made from. Changed people are updated
+    // in place and added people are appended, so the result equals the right book up to the order of people.
+    public static void apply(AddressBookPatch patch, AddressBook.Builder book) {
+        var byName = occurrences(book);
+        var removed = new BitSet();
+        for (var change : patch.getPeopleList()) {
+            switch (change.getKind()) {
+                case UPDATE:
+                    update(book.getPeopleBuilder(index(byName, change)), change);
+                    break;
+                case REMOVE:
+                    removed.set(index(byName, change));
+                    break;
+                case ADD:
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown change kind " + change.getKindValue() + " for " + change.getName());
+            }
+        }
+
+        if (!removed.isEmpty()) {
+            var kept = new ArrayList<Person>(book.getPeopleCount() - removed.cardinality());
+            for (int i = 0; i < book.getPeopleCount(); i++) {
+                if (!removed.get(i)) {
+                    kept.add(book.getPeople(i));
+                }
+            }
+            book.clearPeople().addAllPeople(kept);
+        }
+        for (var change : patch.getPeopleList()) {
+            if (change.getKind() == PersonPatch.Kind.ADD) {
+                book.addPeople(change.getPerson());
+            }
+        }
+    }
+
+    private static void update(Person.Builder person, PersonPatch change) {
+        var values = change.getPerson();
+        for (int number : change.getChangedFieldsList()) {
+            var field = Person.getDescriptor().findFieldByNumber(number);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown field " + number + " in change for " + change.getName());
+            }
+            if (field.isRepeated() || values.hasField(field)) {
+                person.setField(field, values.getField(field));
+            } else {
+                person.clearField(field);
+            }
+        }
+    }
+
+    // Indices of the people by name; people sharing a name are ordered by id, as the keyed differencer pairs them.
+    private static Map<String, List<Integer>> occurrences(AddressBook.Builder book) {
+        var byName = new HashMap<String, List<Integer>>();
+        for (int i = 0; i < book.getPeopleCount(); i++) {
+            byName.computeIfAbsent(book.getPeople(i).getName(), name -> new ArrayList<>(1)).add(i);
+        }
+        for (var indices : byName.values()) {
+            if (indices.size() > 1) {
+                indices.sort(Comparator.comparingInt(i -> book.getPeople(i).getId()));
+            }
+        }
+        return byName;
+    }
+
+    private static int index(Map<String, List<Integer>> byName, PersonPatch change) {
+        var indices = byName.get(change.getName());
+        if (indices == null || change.getOccurrence() >= indices.size()) {
+            throw new IllegalArgumentException("Patch does not apply: no person " + change.getName() + "[" + change.getOccurrence() + "]");
+        }
+        return indices.get(change.getOccurrence());
+    }
+
+    private static AddressBook read(String fileName) throws IOException {
+        try (var input = new FileInputStream(fileName)) {
+            return AddressBook.parseFrom(input);
+        }
+    }
+
+    // Collects the differences of patchDifferencer into a patch. A person's field differences go into one update,
+    // found by the person's path segment, its name or Occurrence, wherever the differences come from.
+    private static class PatchWriter implements DifferenceSink {
+        private final AddressBookPatch.Builder patch = AddressBookPatch.newBuilder();
+        private final Map<Object, PersonPatch.Builder> updates = new HashMap<>();
+
+        @Override
+        public void accept(Difference difference) {
+            var path = difference.path();
+            switch (difference.kind()) {
+                case LEFT_ONLY:
+                    key(patch.addPeopleBuilder(), path).setKind(PersonPatch.Kind.REMOVE);
+                    break;
+                case RIGHT_ONLY:
+                    key(patch.addPeopleBuilder(), path).setKind(PersonPatch.Kind.ADD).setPerson((Person) difference.right());
+                    break;
+                case UNEQUAL:
+                    var field = Person.getDescriptor().findFieldByName(String.valueOf(path.segment()));
+                    if (field == null) {
+                        throw new IllegalArgumentException("Not a person field: " + path);
+                    }
+                    var person = path.parent();
+                    var update = updates.computeIfAbsent(person.segment(),
+                            segment -> key(patch.addPeopleBuilder(), person).setKind(PersonPatch.Kind.UPDATE));
+                    update.addChangedFields(field.getNumber());
+                    update.getPersonBuilder().setField(field, value(difference.right()));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unexpected " + difference.kind() + " difference at " + path);
+            }
+        }
+
+        // The key of a person's path, /people/<name> or /people/<name>[<occurrence>].
+        private static PersonPatch.Builder key(PersonPatch.Builder change, Path person) {
+            var segment = person.segment();
+            if (segment instanceof Occurrence) {
+                var occurrence = (Occurrence) segment;
+                return change.setName((String) occurrence.key()).setOccurrence(occurrence.index());
+            }
+            return change.setName((String) segment);
+        }
+
+        // Generated getters return Java enums, while reflective setters take their descriptors.
+        private static Object value(Object value) {
+            return value instanceof ProtocolMessageEnum ? ((ProtocolMessageEnum) value).getValueDescriptor() : value;
+        }
+    }
+}
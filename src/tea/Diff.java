@@ -2,79 +2,171 @@ package tea;
 
 import com.example.tutorial.AddressBookProtos.AddressBook;
 import com.example.tutorial.AddressBookProtos.Person;
-import tea.comparator.Difference;
+import com.google.protobuf.FieldMask;
+import tea.comparator.DiffLimit;
+import tea.comparator.DiffMetrics;
+import tea.comparator.Differencer;
+import tea.comparator.MessageDifferencers;
 import tea.comparator.Path;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 
-import static tea.comparator.RecursiveDifferencer.*;
+import static tea.comparator.RecursiveDifferencer.diffSortedElementsAllowingDuplicates;
+import static tea.comparator.RecursiveDifferencer.diffSortedEntriesAllowingDuplicates;
+import static tea.comparator.RecursiveDifferencer.diffUnsortedElements;
 
 
 public class Diff {
-
-    public static void main(String[] args) {
-        if (args.length != 2) {
-            System.out.println("Usage: Diff <filename> <filename>");
+    // Books with more people than this are diffed on the common fork/join pool.
+    private static final int PARALLEL_THRESHOLD = 16_384;
+    private static final int DEFAULT_MAX_PENDING = 1_000_000;
+    private static final long DEFAULT_MEMORY_BUDGET = 256L << 20;
+    private static final int DEFAULT_RUN_SIZE = 1_000_000;
+    private static final int DEFAULT_PIPELINE_CAPACITY = 65_536;
+    // people sharing a name are paired by id, as keyByAllowingDuplicates(people, "name", "id") pairs them
+    private static final Comparator<Person> BY_ID = Comparator.comparingInt(Person::getId);
+    private static final Comparator<Person> BY_NAME_THEN_ID = Comparator.comparing(Person::getName).thenComparing(BY_ID);
+
+    // Diff [--unsorted[=MAX_PENDING] | --sort [--memory-budget=MB] [--run-size=N] | --fingerprints]
+    //      [--pipeline[=CAPACITY]] [--max-differences=N] [--time-budget=SECONDS] [--metrics] [--fields=PATH,...] LEFT RIGHT
+    // Streams both address books person by person. Inputs must be sorted by name and then id, with people sharing a
+    // name paired in id order as in addressBookDifferencer, unless --unsorted is given, in which case up to MAX_PENDING
+    // people whose counterpart has not been read yet are held in memory, and people sharing a name are paired with one
+    // of the same id where there is one, the rest by id order. --sort sorts unsorted inputs by name and id on disk first, in runs
+    // of at most N people or an estimated MB megabytes of heap per input, see ExternalSort. --pipeline parses each input on a
+    // thread of its own, holding at most CAPACITY (at least 3) people per input that the diff has not taken yet, see
+    // PrefetchingIterator; it does not apply to --fingerprints. With --fingerprints, the inputs are diffed through their
+    // fingerprint indexes (written when missing or stale), in any order, and only people whose fingerprints differ
+    // are parsed. The diff stops after N differences or SECONDS. --metrics prints the calls, differences and time
+    // per path pattern at the end. --fields compares only the given Person fields, e.g. --fields=email,phones.number.
+    public static void main(String[] args) throws IOException {
+        int maxPending = -1;
+        boolean fingerprints = false;
+        boolean sort = false;
+        long memoryBudget = DEFAULT_MEMORY_BUDGET;
+        int runSize = DEFAULT_RUN_SIZE;
+        int pipelineCapacity = 0;
+        DiffMetrics metrics = null;
+        List<String> fields = List.of();
+        long maxDifferences = Long.MAX_VALUE;
+        var timeBudget = ChronoUnit.FOREVER.getDuration();
+        var files = new ArrayList<String>();
+        for (var arg : args) {
+            if (arg.equals("--unsorted")) {
+                maxPending = DEFAULT_MAX_PENDING;
+            } else if (arg.startsWith("--unsorted=")) {
+                maxPending = Integer.parseInt(arg.substring("--unsorted=".length()));
+            } else if (arg.equals("--sort")) {
+                sort = true;
+            } else if (arg.startsWith("--memory-budget=")) {
+                memoryBudget = Long.parseLong(arg.substring("--memory-budget=".length())) << 20;
+            } else if (arg.startsWith("--run-size=")) {
+                runSize = Integer.parseInt(arg.substring("--run-size=".length()));
+            } else if (arg.equals("--pipeline")) {
+                pipelineCapacity = DEFAULT_PIPELINE_CAPACITY;
+            } else if (arg.startsWith("--pipeline=")) {
+                pipelineCapacity = Integer.parseInt(arg.substring("--pipeline=".length()));
+            } else if (arg.equals("--fingerprints")) {
+                fingerprints = true;
+            } else if (arg.startsWith("--max-differences=")) {
+                maxDifferences = Long.parseLong(arg.substring("--max-differences=".length()));
+            } else if (arg.startsWith("--time-budget=")) {
+                timeBudget = Duration.ofSeconds(Long.parseLong(arg.substring("--time-budget=".length())));
+            } else if (arg.equals("--metrics")) {
+                metrics = new DiffMetrics();
+            } else if (arg.startsWith("--fields=")) {
+                fields = List.of(arg.substring("--fields=".length()).split(","));
+            } else {
+                files.add(arg);
+            }
+        }
+        if (files.size() != 2) {
+            System.out.println("Usage: Diff [--unsorted[=MAX_PENDING] | --sort [--memory-budget=MB] [--run-size=N] | --fingerprints]"
+                    + " [--pipeline[=CAPACITY]] [--max-differences=N] [--time-budget=SECONDS] [--metrics] [--fields=PATH,...] <filename> <filename>");
+            return;
+        }
+        if (fingerprints && pipelineCapacity > 0) {
+            System.out.println("--pipeline does not apply to --fingerprints, which parses only the people whose fingerprints differ");
             return;
         }
 
-        var bono = Person.newBuilder()
-                .setId(2)
-                .setName("bono")
-                .addPhones(Person.PhoneNumber.newBuilder()
-                        .setType(Person.PhoneType.MOBILE)
-                        .setNumber("0800-123-231")).build();
-        var bono2 = bono.toBuilder()
-                .clearPhones()
-                .addPhones(Person.PhoneNumber.newBuilder()
-                        .setType(Person.PhoneType.MOBILE)
-                        .setNumber("0800-132-231"));
-        var john = Person.newBuilder()
-                .setId(3)
-                .setName("john").build();
-        var carla = Person.newBuilder()
-                .setId(4)
-                .setName("carla").build();
-
-
-        var left = AddressBook.newBuilder()
-                .addPeople(bono)
-                .addPeople(john)
-                .addPeople(carla).build();
-        var right = AddressBook.newBuilder()
-                .addPeople(bono2)
-                .addPeople(carla).build();
+        var limit = DiffLimit.of(maxDifferences, timeBudget);
+        if (fingerprints) {
+            try (var left = FingerprintIndex.open(files.get(0)); var right = FingerprintIndex.open(files.get(1))) {
+                fingerprintDifferencer(personDifferencer(metrics, fields), metrics).differences(Path.root(limit).sub("people"), left.sortedByName(), right.sortedByName(), limit.bound(System.out::println));
+            }
+        } else if (sort) {
+            try (var leftReader = MappedPersonReader.open(files.get(0)); var rightReader = MappedPersonReader.open(files.get(1));
+                 var left = new PrefetchingIterator<>(leftReader, "left", pipelineCapacity);
+                 var right = new PrefetchingIterator<>(rightReader, "right", pipelineCapacity);
+                 var leftSort = new ExternalSort(BY_NAME_THEN_ID, memoryBudget, runSize); var rightSort = new ExternalSort(BY_NAME_THEN_ID, memoryBudget, runSize)) {
+                peopleDifferencer(-1, personDifferencer(metrics, fields), metrics)
+                        .differences(Path.root(limit).sub("people"), leftSort.sort(left), rightSort.sort(right), limit.bound(System.out::println));
+            }
+        } else {
+            // the prefetchers are closed first, so their threads have stopped reading when the readers are closed
+            try (var leftReader = MappedPersonReader.open(files.get(0)); var rightReader = MappedPersonReader.open(files.get(1));
+                 var left = new PrefetchingIterator<>(leftReader, "left", pipelineCapacity);
+                 var right = new PrefetchingIterator<>(rightReader, "right", pipelineCapacity)) {
+                peopleDifferencer(maxPending, personDifferencer(metrics, fields), metrics).differences(Path.root(limit).sub("people"), left, right, limit.bound(System.out::println));
+            }
+        }
+        if (limit.truncated()) {
+            System.out.println("Diff truncated: " + limit.reason());
+        }
+        if (metrics != null) {
+            System.out.print(metrics.summary());
+        }
+    }
 
-        System.out.println(
-                "Diff:\n" + compareAddressBook(left, right)
-                        .map(Object::toString)
-                        .collect(Collectors.joining("\n", "\n", "\n")));
+    // Streaming differencer for people read from files, see main; maxPending < 0 requires sorted inputs.
+    // Records into metrics unless it is null.
+    public static Differencer<Iterator<Person>, Iterator<Person>> peopleDifferencer(int maxPending, Differencer<Person, Person> personDifferencer, DiffMetrics metrics) {
+        return instrumented(maxPending < 0
+                ? diffSortedElementsAllowingDuplicates(personDifferencer, Person::getName, Comparator.naturalOrder(), BY_ID)
+                : diffUnsortedElements(personDifferencer, Person::getName, BY_ID, maxPending), metrics);
+    }
 
-/*        try {
-            var left = AddressBook.parseFrom(new FileInputStream(args[0]));
-            var right = AddressBook.parseFrom(new FileInputStream(args[1]));
+    // Differencer for the entries of two fingerprint indexes sorted by name and id; same output as peopleDifferencer on sorted inputs.
+    public static Differencer<Iterator<FingerprintIndex.Entry>, Iterator<FingerprintIndex.Entry>> fingerprintDifferencer(Differencer<Person, Person> personDifferencer, DiffMetrics metrics) {
+        return instrumented(diffSortedEntriesAllowingDuplicates(personDifferencer, FingerprintIndex.Entry::name, Comparator.naturalOrder(),
+                FingerprintIndex.Entry::sameFingerprint, FingerprintIndex.Entry::load), metrics);
+    }
 
+    public static Differencer<AddressBook, AddressBook> addressBookDifferencer() {
+        return addressBookDifferencer(FieldMask.getDefaultInstance());
+    }
 
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }*/
+    // Compares the fields on the mask's paths, e.g. people.email, or all fields if the mask is empty.
+    public static Differencer<AddressBook, AddressBook> addressBookDifferencer(FieldMask fields) {
+        return MessageDifferencers.builder(AddressBook.getDefaultInstance())
+                .keyByAllowingDuplicates(AddressBook.getDescriptor().findFieldByNumber(AddressBook.PEOPLE_FIELD_NUMBER), "name", "id")
+                .editScript(Person.getDescriptor().findFieldByNumber(Person.PHONES_FIELD_NUMBER))
+                .parallelThreshold(PARALLEL_THRESHOLD)
+                .scope(fields)
+                .compile();
     }
 
-    private static Stream<Difference> compareAddressBook(AddressBook left, AddressBook right) {
-        var diffPhone = compose(
-                diffChildWithEquals(Person.PhoneNumber::getNumber, "number"),
-                diffChildWithEquals(Person.PhoneNumber::getType, "type"));
+    public static Differencer<Person, Person> personDifferencer() {
+        return personDifferencer(null, List.of());
+    }
 
-        var personDifferencer = compose(
-                diffChildWithEquals(Person::getEmail, "email"),
-                diffChildWithEquals(Person::getId, "id"),
-                diffChild(Person::getPhonesList, "phones", diffListElements(diffPhone)));
+    // Compares the fields on the given paths, or all fields if there are none.
+    public static Differencer<Person, Person> personDifferencer(DiffMetrics metrics, List<String> fields) {
+        return MessageDifferencers.builder(Person.getDefaultInstance())
+                .editScript(Person.getDescriptor().findFieldByNumber(Person.PHONES_FIELD_NUMBER))
+                .scope(fields)
+                .instrument(metrics)
+                .compile();
+    }
 
-        return compose(
-                diffChild(AddressBook::getPeopleList, "people", diffListElementsAsMap(personDifferencer, Person::getName)))
-                .differences(Path.root(), left, right);
+    private static <L, R> Differencer<L, R> instrumented(Differencer<L, R> differencer, DiffMetrics metrics) {
+        return metrics == null ? differencer : metrics.instrument(differencer);
     }
 }
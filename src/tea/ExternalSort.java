@@ -0,0 +1,182 @@
+package tea;
+
+import com.example.tutorial.AddressBookProtos.Person;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+// Sorts more people than fit in memory. Runs of at most runSize people, or an estimated memoryBudget bytes of heap, are
+// sorted in memory and spilled to temporary files as length-delimited records, which are then merged k ways while being
+// read. The last run stays in memory when it is the only one.
+// The sort is stable: people with equal keys keep their input order. close() deletes the temporary files.
+public class ExternalSort implements Closeable {
+    // Runs merged at once; more runs are first merged in groups, so that few files are open and buffered at a time.
+    private static final int MAX_FAN_IN = 256;
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Heap bytes of a parsed Person and its reference in the run per serialized byte: measured as 5.6 with compressed
+    // oops and 6.6 without on people of about 70 serialized bytes; small messages are dominated by object headers.
+    private static final int HEAP_PER_SERIALIZED_BYTE = 7;
+
+    private final Comparator<Person> order;
+    private final long memoryBudget;
+    private final int runSize;
+    private final Path directory;
+    private final List<Path> files = new ArrayList<>();
+    private final List<InputStream> inputs = new ArrayList<>();
+
+    public ExternalSort(Comparator<Person> order, long memoryBudget, int runSize) {
+        this(order, memoryBudget, runSize, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    public ExternalSort(Comparator<Person> order, long memoryBudget, int runSize, Path directory) {
+        this.order = order;
+        this.memoryBudget = memoryBudget;
+        this.runSize = runSize;
+        this.directory = directory;
+    }
+
+    // Reads all of people into sorted runs and returns the merge of the runs. Input that fits into a single run
+    // is sorted in memory without touching the disk.
+    public Iterator<Person> sort(Iterator<Person> people) throws IOException {
+        var runs = new ArrayList<Path>();
+        var run = new ArrayList<Person>();
+        long bytes = 0;
+        while (people.hasNext()) {
+            var person = people.next();
+            run.add(person);
+            bytes += (long) person.getSerializedSize() * HEAP_PER_SERIALIZED_BYTE;
+            if (run.size() >= runSize || bytes >= memoryBudget) {
+                runs.add(spill(run));
+                run.clear();
+                bytes = 0;
+            }
+        }
+        if (runs.isEmpty()) {
+            run.sort(order);
+            return run.iterator();
+        }
+        if (!run.isEmpty()) {
+            runs.add(spill(run));
+        }
+
+        while (runs.size() > MAX_FAN_IN) {
+            var merged = new ArrayList<Path>();
+            for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                merged.add(mergeToFile(runs.subList(i, Math.min(i + MAX_FAN_IN, runs.size()))));
+            }
+            runs = merged;
+        }
+        return merge(runs);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (var input : inputs) {
+            input.close();
+        }
+        inputs.clear();
+        for (var file : files) {
+            Files.deleteIfExists(file);
+        }
+        files.clear();
+    }
+
+    private Path spill(List<Person> run) throws IOException {
+        run.sort(order);
+        var file = Files.createTempFile(directory, "people-", ".run");
+        files.add(file);
+        try (var out = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE)) {
+            for (var person : run) {
+                person.writeDelimitedTo(out);
+            }
+        }
+        return file;
+    }
+
+    // Merges consecutive runs into one, so the merge stays stable.
+    private Path mergeToFile(List<Path> runs) throws IOException {
+        var file = Files.createTempFile(directory, "people-", ".run");
+        files.add(file);
+        try (var out = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE)) {
+            var merged = merge(runs);
+            while (merged.hasNext()) {
+                merged.next().writeDelimitedTo(out);
+            }
+        }
+        for (var run : runs) {
+            Files.delete(run);
+            files.remove(run);
+        }
+        return file;
+    }
+
+    private Iterator<Person> merge(List<Path> runs) throws IOException {
+        // ties go to the earlier run, which holds the earlier input
+        var heads = new PriorityQueue<Run>(runs.size(), Comparator.<Run, Person>comparing(run -> run.head, order).thenComparingInt(run -> run.index));
+        for (int i = 0; i < runs.size(); i++) {
+            var input = new BufferedInputStream(Files.newInputStream(runs.get(i)), BUFFER_SIZE);
+            inputs.add(input);
+            var run = new Run(input, i);
+            if (run.advance()) {
+                heads.add(run);
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Person next() {
+                var run = heads.poll();
+                if (run == null) {
+                    throw new NoSuchElementException();
+                }
+                var person = run.head;
+                if (run.advance()) {
+                    heads.add(run);
+                }
+                return person;
+            }
+        };
+    }
+
+    private class Run {
+        private final InputStream input;
+        private final int index;
+        private Person head;
+
+        Run(InputStream input, int index) {
+            this.input = input;
+            this.index = index;
+        }
+
+        // Reads the next person into head, closing the run at its end.
+        boolean advance() {
+            try {
+                head = Person.parseDelimitedFrom(input);
+                if (head == null) {
+                    input.close();
+                    inputs.remove(input);
+                    return false;
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
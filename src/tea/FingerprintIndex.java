@@ -0,0 +1,204 @@
+package tea;
+
+import com.example.tutorial.AddressBookProtos.Person;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+// Sidecar index of a serialized AddressBook, kept next to it as <snapshot>.fp: for every person, in file order,
+// the name, the id, the offset and length of its record and a 128-bit MD5 fingerprint of the record bytes.
+// Diffing two indexed snapshots compares fingerprints first, so only the people that changed are read and parsed.
+public class FingerprintIndex implements Closeable {
+    private static final int MAGIC = 0x54454650;
+    private static final int VERSION = 2;
+    private static final String SUFFIX = ".fp";
+
+    private final FileChannel snapshot;
+    private final List<Entry> entries;
+
+    private FingerprintIndex(FileChannel snapshot, List<Entry> entries) {
+        this.snapshot = snapshot;
+        this.entries = entries;
+    }
+
+    // Opens the snapshot with its index, (re)writing the index first when it is missing or was written for another version of the file.
+    public static FingerprintIndex open(String snapshot) throws IOException {
+        var file = Paths.get(snapshot);
+        var channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            var index = new FingerprintIndex(channel, new ArrayList<>());
+            if (!index.read(file)) {
+                index.entries.clear();
+                index.write(snapshot, file);
+            }
+            return index;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // FingerprintIndex SNAPSHOT...
+    // Writes the index of each snapshot next to it.
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: FingerprintIndex <filename>...");
+            return;
+        }
+        for (var snapshot : args) {
+            try (var channel = FileChannel.open(Paths.get(snapshot), StandardOpenOption.READ)) {
+                new FingerprintIndex(channel, new ArrayList<>()).write(snapshot, Paths.get(snapshot));
+            }
+        }
+    }
+
+    // The entries sorted by name and then id, the order in which Diff pairs people sharing a name.
+    public Iterator<Entry> sortedByName() {
+        var sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(Entry::name).thenComparingInt(Entry::id));
+        return sorted.iterator();
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshot.close();
+    }
+
+    private boolean read(Path file) throws IOException {
+        var sidecar = sidecar(file);
+        if (!Files.exists(sidecar)) {
+            return false;
+        }
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION
+                    || in.readLong() != Files.size(file) || in.readLong() != Files.getLastModifiedTime(file).toMillis()) {
+                return false;
+            }
+            for (int nameLength = in.readInt(); nameLength >= 0; nameLength = in.readInt()) {
+                var name = new byte[nameLength];
+                in.readFully(name);
+                entries.add(new Entry(this, new String(name, StandardCharsets.UTF_8), in.readInt(), in.readLong(), in.readInt(), in.readLong(), in.readLong()));
+            }
+            return true;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    // Writes to a temporary file first so that a concurrent reader never sees a partial index.
+    private void write(String snapshot, Path file) throws IOException {
+        var sidecar = sidecar(file);
+        var temporary = sidecar.resolveSibling(sidecar.getFileName() + ".tmp");
+        long size = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        var md5 = md5();
+        try (var people = MappedPersonReader.open(snapshot);
+             var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(size);
+            out.writeLong(lastModified);
+            while (people.hasNext()) {
+                var person = people.next();
+                var record = people.record();
+                md5.update(record.asReadOnlyByteBuffer());
+                var fingerprint = ByteBuffer.wrap(md5.digest());
+                var entry = new Entry(this, person.getName(), person.getId(), people.recordOffset(), record.size(), fingerprint.getLong(), fingerprint.getLong());
+                var name = entry.name.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(name.length);
+                out.write(name);
+                out.writeInt(entry.id);
+                out.writeLong(entry.offset);
+                out.writeInt(entry.length);
+                out.writeLong(entry.high);
+                out.writeLong(entry.low);
+                entries.add(entry);
+            }
+            out.writeInt(-1);
+        }
+        Files.move(temporary, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Person load(Entry entry) {
+        try {
+            var record = ByteBuffer.allocate(entry.length);
+            while (record.hasRemaining()) {
+                if (snapshot.read(record, entry.offset + record.position()) < 0) {
+                    throw new EOFException("Snapshot changed since it was indexed: record at offset " + entry.offset + " is truncated");
+                }
+            }
+            return Person.parseFrom(record.flip());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path sidecar(Path file) {
+        return file.resolveSibling(file.getFileName() + SUFFIX);
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // One indexed person; load() reads and parses it from the snapshot.
+    public static class Entry {
+        private final FingerprintIndex index;
+        private final String name;
+        private final int id;
+        private final long offset;
+        private final int length;
+        private final long high;
+        private final long low;
+
+        Entry(FingerprintIndex index, String name, int id, long offset, int length, long high, long low) {
+            this.index = index;
+            this.name = name;
+            this.id = id;
+            this.offset = offset;
+            this.length = length;
+            this.high = high;
+            this.low = low;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public int id() {
+            return id;
+        }
+
+        public boolean sameFingerprint(Entry other) {
+            return high == other.high && low == other.low && length == other.length;
+        }
+
+        public Person load() {
+            return index.load(this);
+        }
+    }
+}
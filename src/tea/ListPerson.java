@@ -1,38 +1,34 @@
 package tea;
 
-import com.example.tutorial.AddressBookProtos.AddressBook;
 import com.example.tutorial.AddressBookProtos.Person;
-import java.io.FileInputStream;
 
 public class ListPerson {
-    // Iterates though all people in the AddressBook and prints info about them.
-    static void Print(AddressBook addressBook) {
-        for (Person person: addressBook.getPeopleList()) {
-            System.out.println("Person ID: " + person.getId());
-            System.out.println("  Name: " + person.getName());
-            if (!person.getEmail().isEmpty()) {
-                System.out.println("  E-mail address: " + person.getEmail());
-            }
+    // Prints info about one person.
+    static void Print(Person person) {
+        System.out.println("Person ID: " + person.getId());
+        System.out.println("  Name: " + person.getName());
+        if (!person.getEmail().isEmpty()) {
+            System.out.println("  E-mail address: " + person.getEmail());
+        }
 
-            for (Person.PhoneNumber phoneNumber : person.getPhonesList()) {
-                switch (phoneNumber.getType()) {
-                    case MOBILE:
-                        System.out.print("  Mobile phone #: ");
-                        break;
-                    case HOME:
-                        System.out.print("  Home phone #: ");
-                        break;
-                    case WORK:
-                        System.out.print("  Work phone #: ");
-                        break;
-                }
-                System.out.println(phoneNumber.getNumber());
+        for (Person.PhoneNumber phoneNumber : person.getPhonesList()) {
+            switch (phoneNumber.getType()) {
+                case MOBILE:
+                    System.out.print("  Mobile phone #: ");
+                    break;
+                case HOME:
+                    System.out.print("  Home phone #: ");
+                    break;
+                case WORK:
+                    System.out.print("  Work phone #: ");
+                    break;
             }
+            System.out.println(phoneNumber.getNumber());
         }
     }
 
-    // Main function:  Reads the entire address book from a file and prints all
-    //   the information inside.
+    // Main function:  Reads the address book from a memory-mapped file one person
+    //   at a time and prints all the information inside.
     public static void main(String[] args) throws Exception {
         if (args.length != 1) {
             System.err.println("Usage:  ListPeople ADDRESS_BOOK_FILE");
@@ -40,9 +36,10 @@ public class ListPerson {
         }
 
         // Read the existing address book.
-        AddressBook addressBook =
-                AddressBook.parseFrom(new FileInputStream(args[0]));
-
-        Print(addressBook);
+        try (MappedPersonReader people = MappedPersonReader.open(args[0])) {
+            while (people.hasNext()) {
+                Print(people.next());
+            }
+        }
     }
 }
\ No newline at end of file
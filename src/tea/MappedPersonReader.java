@@ -0,0 +1,163 @@
+package tea;
+
+import com.example.tutorial.AddressBookProtos.AddressBook;
+import com.example.tutorial.AddressBookProtos.Person;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
+import com.google.protobuf.WireFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Reads the people of a serialized AddressBook straight from a memory-mapped file.
+// The file is mapped in windows (a single mapping is limited to 2 GB) that are moved forward record by record.
+// Parsed people alias the mapping wherever protobuf allows it, and the mapping stays valid after close()
+// until it is garbage collected, so the file must not be truncated while they are in use.
+public class MappedPersonReader implements Iterator<Person>, Closeable {
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private Person next;
+    private ByteString nextRecord;
+    private ByteString record;
+    private long nextOffset;
+    private long offset;
+
+    MappedPersonReader(FileChannel channel, long windowSize) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.windowSize = windowSize;
+        map(0);
+    }
+
+    public static MappedPersonReader open(String fileName) throws IOException {
+        return new MappedPersonReader(FileChannel.open(Paths.get(fileName), StandardOpenOption.READ), WINDOW_SIZE);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Person next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        var person = next;
+        record = nextRecord;
+        offset = nextOffset;
+        next = null;
+        return person;
+    }
+
+    // The serialized bytes of the person last returned by next(), aliasing the mapping.
+    public ByteString record() {
+        return record;
+    }
+
+    // The file offset of record().
+    public long recordOffset() {
+        return offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+    }
+
+    private Person read() throws IOException {
+        while (windowStart + window.position() < size) {
+            int start = window.position();
+            try {
+                int tag = readVarint32(window);
+                switch (tag & 7) {
+                    case WireFormat.WIRETYPE_LENGTH_DELIMITED:
+                        int length = readVarint32(window);
+                        var value = take(window, length);
+                        if (tag >>> 3 == AddressBook.PEOPLE_FIELD_NUMBER) {
+                            nextOffset = windowStart + window.position() - length;
+                            return parse(value);
+                        }
+                        break;
+                    case WireFormat.WIRETYPE_VARINT:
+                        readVarint64(window);
+                        break;
+                    case WireFormat.WIRETYPE_FIXED64:
+                        take(window, 8);
+                        break;
+                    case WireFormat.WIRETYPE_FIXED32:
+                        take(window, 4);
+                        break;
+                    default:
+                        throw new InvalidProtocolBufferException("Unsupported wire type in tag " + tag + " at offset " + (windowStart + start));
+                }
+            } catch (BufferUnderflowException e) {
+                if (start == 0 || windowStart + window.limit() >= size) {
+                    throw new InvalidProtocolBufferException("Truncated record or record larger than the mapping window at offset " + (windowStart + start));
+                }
+                map(windowStart + start);
+            }
+        }
+        return null;
+    }
+
+    private Person parse(ByteBuffer value) throws IOException {
+        nextRecord = UnsafeByteOperations.unsafeWrap(value.duplicate());
+        var input = CodedInputStream.newInstance(value);
+        input.enableAliasing(true);
+        return Person.parser().parseFrom(input);
+    }
+
+    private static ByteBuffer take(ByteBuffer buffer, int length) {
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        var value = buffer.slice().limit(length);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static int readVarint32(ByteBuffer buffer) throws InvalidProtocolBufferException {
+        return (int) readVarint64(buffer);
+    }
+
+    private static long readVarint64(ByteBuffer buffer) throws InvalidProtocolBufferException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new InvalidProtocolBufferException("Malformed varint");
+    }
+}
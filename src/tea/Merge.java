@@ -0,0 +1,59 @@
+package tea;
+
+import com.example.tutorial.AddressBookProtos.AddressBook;
+import com.example.tutorial.AddressBookProtos.Person;
+import com.google.protobuf.CodedOutputStream;
+import tea.comparator.Path;
+import tea.comparator.ThreeWayMerge;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+
+public class Merge {
+
+    // Merge BASE LEFT RIGHT OUT
+    // Merges the changes of LEFT and RIGHT to BASE into OUT, person by person, and prints the conflicts.
+    // All inputs must be sorted by name, with people sharing a name paired in file order; OUT is sorted the same way.
+    // A field both sides changed keeps the LEFT value, and a person deleted on one side but changed on the other is kept.
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.out.println("Usage: Merge <base> <left> <right> <out>");
+            return;
+        }
+
+        long conflicts;
+        try (var base = MappedPersonReader.open(args[0]);
+             var left = MappedPersonReader.open(args[1]);
+             var right = MappedPersonReader.open(args[2]);
+             var file = new BufferedOutputStream(new FileOutputStream(args[3]))) {
+            var out = CodedOutputStream.newInstance(file);
+            var count = new long[1];
+            personMerge().merge(Path.root().sub("people"), base, left, right,
+                    person -> write(out, person),
+                    conflict -> {
+                        count[0]++;
+                        System.out.println(conflict);
+                    });
+            out.flush();
+            conflicts = count[0];
+        }
+        if (conflicts > 0) {
+            System.out.println("Merge has " + conflicts + " conflicts");
+        }
+    }
+
+    public static ThreeWayMerge<String, Person> personMerge() {
+        return new ThreeWayMerge<>(Person.getDefaultInstance(), Person::getName, Comparator.naturalOrder());
+    }
+
+    private static void write(CodedOutputStream out, Person person) {
+        try {
+            out.writeMessage(AddressBook.PEOPLE_FIELD_NUMBER, person);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package tea;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Reads a source iterator ahead on a thread of its own into a bounded queue, so that producing the elements (e.g.
+// parsing people) overlaps with consuming them. A full queue blocks the reader, which bounds the elements held ahead.
+// Elements are handed over in batches, so that queue synchronization stays off the per-element path. At most capacity
+// elements (at least 3) are held that the consumer has not taken yet: the queued batches, the batch the reader is
+// handing over and the batch being consumed. With a capacity of 0 there is no thread, and the source is iterated directly.
+public class PrefetchingIterator<T> implements Iterator<T>, Closeable {
+    private static final int BATCH_SIZE = 256;
+    private static final Object END = new Object();
+
+    private final Iterator<T> source;
+    // batches (List<T>), then END or the Throwable that ended the source
+    private final BlockingQueue<Object> queue;
+    private final Thread reader;
+    private final int batchSize;
+    private List<T> batch = List.of();
+    private int position;
+    private boolean done;
+
+    public PrefetchingIterator(Iterator<T> source, String name, int capacity) {
+        this.source = source;
+        if (capacity == 0) {
+            this.queue = null;
+            this.reader = null;
+            this.batchSize = 0;
+            return;
+        }
+        capacity = Math.max(3, capacity);
+        // two batches are outside the queue, see above
+        this.batchSize = Math.min(BATCH_SIZE, Math.max(1, capacity / 4));
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity / batchSize - 2));
+        this.reader = new Thread(this::read, name);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (reader == null) {
+            return source.hasNext();
+        }
+        if (position < batch.size()) {
+            return true;
+        }
+        if (done) {
+            return false;
+        }
+        var item = take();
+        if (item == END) {
+            done = true;
+            return false;
+        }
+        if (item instanceof Throwable) {
+            done = true;
+            if (item instanceof RuntimeException) {
+                throw (RuntimeException) item;
+            }
+            throw (Error) item;
+        }
+        @SuppressWarnings("unchecked")
+        var next = (List<T>) item;
+        batch = next;
+        position = 0;
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (reader == null) {
+            return source.next();
+        }
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return batch.get(position++);
+    }
+
+    // Stops the reader and waits for it, so that the source can be closed safely afterwards.
+    @Override
+    public void close() {
+        if (reader == null) {
+            return;
+        }
+        reader.interrupt();
+        try {
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void read() {
+        try {
+            var next = new ArrayList<T>(batchSize);
+            while (source.hasNext()) {
+                next.add(source.next());
+                if (next.size() == batchSize) {
+                    queue.put(next);
+                    next = new ArrayList<>(batchSize);
+                }
+            }
+            if (!next.isEmpty()) {
+                queue.put(next);
+            }
+            queue.put(END);
+        } catch (InterruptedException e) {
+            // closed by the consumer
+        } catch (RuntimeException | Error e) {
+            if (!Thread.currentThread().isInterrupted()) {
+                try {
+                    queue.put(e);
+                } catch (InterruptedException closed) {
+                    // closed by the consumer
+                }
+            }
+        }
+    }
+
+    private Object take() {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + reader.getName(), e);
+        }
+    }
+}
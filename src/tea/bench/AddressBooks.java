@@ -0,0 +1,45 @@
+package tea.bench;
+
+import com.example.tutorial.AddressBookProtos.AddressBook;
+import com.example.tutorial.AddressBookProtos.Person;
+
+import java.util.Random;
+
+// Synthetic address books for the benchmarks.
+class AddressBooks {
+
+    static AddressBook generate(int people, long seed) {
+        var random = new Random(seed);
+        var book = AddressBook.newBuilder();
+        for (int i = 0; i < people; i++) {
+            book.addPeople(person(i, random));
+        }
+        return book.build();
+    }
+
+    // Returns a copy of the book with {@code changes} people given a new email.
+    static AddressBook withChanges(AddressBook book, int changes, long seed) {
+        var random = new Random(seed);
+        var changed = book.toBuilder();
+        for (int i = 0; i < changes; i++) {
+            int index = random.nextInt(changed.getPeopleCount());
+            var person = changed.getPeople(index);
+            changed.setPeople(index, person.toBuilder().setEmail("changed-" + i + "@example.com"));
+        }
+        return changed.build();
+    }
+
+    private static Person person(int id, Random random) {
+        var person = Person.newBuilder()
+                .setId(id)
+                .setName("person-" + id)
+                .setEmail("person-" + id + "@example.com");
+        int phones = random.nextInt(4);
+        for (int p = 0; p < phones; p++) {
+            person.addPhones(Person.PhoneNumber.newBuilder()
+                    .setType(Person.PhoneType.forNumber(random.nextInt(3)))
+                    .setNumber(String.format("0800-%03d-%03d", random.nextInt(1000), random.nextInt(1000))));
+        }
+        return person.build();
+    }
+}
@@ -0,0 +1,26 @@
+package tea.bench;
+
+import tea.Diff;
+import tea.comparator.Path;
+
+// Compares the boolean anyDifference mode against counting the full difference stream.
+public class AnyDifferenceBenchmark {
+
+    public static void main(String[] args) {
+        int people = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        var differencer = Diff.addressBookDifferencer();
+        var book = AddressBooks.generate(people, 42);
+        var equal = book.toBuilder().build();
+        var nearEqual = AddressBooks.withChanges(book, 1, 7);
+
+        Bench.run("equal / differences().count()", 3, 5,
+                () -> differencer.differences(Path.root(), book, equal).count());
+        Bench.run("equal / anyDifference()", 3, 5,
+                () -> differencer.anyDifference(book, equal));
+        Bench.run("near-equal / differences().count()", 3, 5,
+                () -> differencer.differences(Path.root(), book, nearEqual).count());
+        Bench.run("near-equal / anyDifference()", 3, 5,
+                () -> differencer.anyDifference(book, nearEqual));
+    }
+}
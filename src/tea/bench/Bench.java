@@ -0,0 +1,37 @@
+package tea.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+// Minimal timing harness for the quick smoke mains; the JMH suite with forked runs and the GC profiler is in jmh/.
+class Bench {
+    private static volatile Object sink;
+
+    static void run(String name, int warmups, int iterations, Supplier<?> op) {
+        for (int i = 0; i < warmups; i++) {
+            sink = op.get();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = op.get();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-50s %12.3f ms/op%n", name, elapsed / 1e6 / iterations);
+    }
+
+    // Heap bytes allocated by the calling thread per unit of work, e.g. per compared person.
+    static void allocations(String name, int warmups, long units, Supplier<?> op) {
+        for (int i = 0; i < warmups; i++) {
+            sink = op.get();
+        }
+
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        sink = op.get();
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        System.out.printf("%-50s %12.1f B/unit%n", name, (double) allocated / units);
+    }
+}
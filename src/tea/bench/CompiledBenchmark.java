@@ -0,0 +1,89 @@
+package tea.bench;
+
+import com.example.tutorial.AddressBookProtos.AddressBook;
+import com.example.tutorial.AddressBookProtos.Person;
+import tea.comparator.Differencer;
+import tea.comparator.MessageDifferencers;
+import tea.comparator.Path;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static tea.comparator.RecursiveDifferencer.*;
+
+// Lambda-composed differencers against the MethodHandle-compiled ones on AddressBook, without pruning.
+public class CompiledBenchmark {
+
+    public static void main(String[] args) {
+        int people = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        Differencer<Person, Person> composedPerson = compose(
+                diffChildWithEquals(Person::getName, "name"),
+                diffChildWithEquals(Person::getId, "id"),
+                diffChildWithEquals(Person::getEmail, "email"),
+                diffChild(Person::getPhonesList, "phones", diffListElements(compose(
+                        diffChildWithEquals(Person.PhoneNumber::getNumber, "number"),
+                        diffChildWithEquals(Person.PhoneNumber::getType, "type")))));
+        Differencer<AddressBook, AddressBook> composed = compose(
+                diffChild(AddressBook::getPeopleList, "people", diffListElementsSorted(composedPerson, Person::getName)));
+
+        var spec = MessageDifferencers.builder(AddressBook.getDefaultInstance())
+                .keyBy(AddressBook.getDescriptor().findFieldByNumber(AddressBook.PEOPLE_FIELD_NUMBER), "name")
+                .pruneEqual(false);
+        Differencer<AddressBook, AddressBook> compiled = spec.compile();
+        Differencer<Person, Person> compiledPerson = MessageDifferencers.builder(Person.getDefaultInstance())
+                .pruneEqual(false)
+                .compile();
+
+        var left = AddressBooks.generate(people, 42);
+        var right = AddressBooks.withChanges(left, people / 100, 7);
+        if (!render(composed, left, right).equals(render(compiled, left, right))) {
+            throw new IllegalStateException("composed and compiled differencers disagree");
+        }
+
+        checkOverride();
+
+        var leftPeople = left.getPeopleList();
+        var rightPeople = right.getPeopleList();
+        Bench.run("composed / differences", 2, 5, () -> composed.differences(Path.root(), left, right).count());
+        Bench.run("compiled / differences", 2, 5, () -> compiled.differences(Path.root(), left, right).count());
+        Bench.run("composed / anyDifference per person", 2, 5, () -> countDifferent(composedPerson, leftPeople, rightPeople));
+        Bench.run("compiled / anyDifference per person", 2, 5, () -> countDifferent(compiledPerson, leftPeople, rightPeople));
+    }
+
+    // An override replaces equals() in the compiled boolean mode too, so build() and compile() agree on both modes.
+    private static void checkOverride() {
+        Differencer<String, String> equals = diffWithEquals();
+        Differencer<String, String> ignoringCase = push((path, l, r, sink) -> {
+            if (!l.equalsIgnoreCase(r)) {
+                equals.differences(path, l, r, sink);
+            }
+        });
+        var spec = MessageDifferencers.builder(Person.getDefaultInstance())
+                .override(Person.getDescriptor().findFieldByNumber(Person.EMAIL_FIELD_NUMBER), ignoringCase)
+                .pruneEqual(false);
+        Differencer<Person, Person> built = spec.build();
+        Differencer<Person, Person> compiled = spec.compile();
+        var person = Person.newBuilder().setName("person").setEmail("A@B").build();
+        for (var other : List.of(person.toBuilder().setEmail("a@b").build(), person.toBuilder().setEmail("a@c").build())) {
+            if (built.anyDifference(person, other) != compiled.anyDifference(person, other)
+                    || built.differences(Path.root(), person, other).count() != compiled.differences(Path.root(), person, other).count()) {
+                throw new IllegalStateException("built and compiled differencers disagree on an overridden field");
+            }
+        }
+    }
+
+    private static long countDifferent(Differencer<Person, Person> differencer, List<Person> left, List<Person> right) {
+        long count = 0;
+        for (int i = 0; i < left.size(); i++) {
+            if (differencer.anyDifference(left.get(i), right.get(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String render(Differencer<AddressBook, AddressBook> differencer, AddressBook left, AddressBook right) {
+        return differencer.differences(Path.root(), left, right).map(Object::toString).collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,42 @@
+package tea.bench;
+
+import com.example.tutorial.AddressBookProtos.Person;
+import tea.comparator.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static tea.comparator.RecursiveDifferencer.*;
+
+// Positional against edit-script list diff on long, nearly equal phone lists.
+public class EditScriptBenchmark {
+
+    public static void main(String[] args) {
+        int phones = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int edits = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        var phoneDiff = compose(
+                diffChildWithEquals(Person.PhoneNumber::getNumber, "number"),
+                diffChildWithEquals(Person.PhoneNumber::getType, "type"));
+        var positional = diffListElements(phoneDiff);
+        var editScript = diffListElementsByEditScript(phoneDiff);
+
+        var left = new ArrayList<Person.PhoneNumber>();
+        for (int i = 0; i < phones; i++) {
+            left.add(phone("0800-" + i));
+        }
+        List<Person.PhoneNumber> right = new ArrayList<>(left);
+        for (int e = 0; e < edits; e++) {
+            right.add(e * (phones / edits), phone("inserted-" + e));
+        }
+
+        System.out.println("positional differences: " + positional.differences(Path.root(), left, right).count());
+        System.out.println("edit script differences: " + editScript.differences(Path.root(), left, right).count());
+        Bench.run("diffListElements", 2, 5, () -> positional.differences(Path.root(), left, right).count());
+        Bench.run("diffListElementsByEditScript", 2, 5, () -> editScript.differences(Path.root(), left, right).count());
+    }
+
+    private static Person.PhoneNumber phone(String number) {
+        return Person.PhoneNumber.newBuilder().setNumber(number).build();
+    }
+}
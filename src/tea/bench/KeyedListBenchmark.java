@@ -0,0 +1,54 @@
+package tea.bench;
+
+import com.example.tutorial.AddressBookProtos.Person;
+import tea.Diff;
+import tea.comparator.Path;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static tea.comparator.RecursiveDifferencer.*;
+
+// Hash-map keyed list diff against the sort-merge one, on sorted and shuffled inputs.
+public class KeyedListBenchmark {
+
+    public static void main(String[] args) {
+        int people = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        var asMap = diffListElementsAsMap(Diff.personDifferencer(), Person::getName);
+        var sorted = diffListElementsSorted(Diff.personDifferencer(), Person::getName);
+
+        var left = AddressBooks.generate(people, 42).getPeopleList();
+        var right = AddressBooks.withChanges(AddressBooks.generate(people, 42), people / 100, 7).getPeopleList();
+        left = sortedByName(left);
+        right = sortedByName(right);
+        var shuffledLeft = shuffled(left, 1);
+        var shuffledRight = shuffled(right, 2);
+
+        var l = left;
+        var r = right;
+        Bench.run("sorted input / diffListElementsAsMap", 2, 5,
+                () -> asMap.differences(Path.root(), l, r).count());
+        Bench.run("sorted input / diffListElementsSorted", 2, 5,
+                () -> sorted.differences(Path.root(), l, r).count());
+        Bench.run("shuffled input / diffListElementsAsMap", 2, 5,
+                () -> asMap.differences(Path.root(), shuffledLeft, shuffledRight).count());
+        Bench.run("shuffled input / diffListElementsSorted", 2, 5,
+                () -> sorted.differences(Path.root(), shuffledLeft, shuffledRight).count());
+    }
+
+    private static List<Person> sortedByName(List<Person> people) {
+        var copy = new ArrayList<>(people);
+        copy.sort(Comparator.comparing(Person::getName));
+        return copy;
+    }
+
+    private static List<Person> shuffled(List<Person> people, long seed) {
+        var copy = new ArrayList<>(people);
+        Collections.shuffle(copy, new Random(seed));
+        return copy;
+    }
+}
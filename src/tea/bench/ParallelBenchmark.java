@@ -0,0 +1,41 @@
+package tea.bench;
+
+import com.example.tutorial.AddressBookProtos.Person;
+import tea.Diff;
+import tea.comparator.Path;
+
+import java.util.stream.Collectors;
+
+import static tea.comparator.RecursiveDifferencer.*;
+
+// Sequential against fork/join sorted keyed diff of AddressBook.people.
+public class ParallelBenchmark {
+
+    public static void main(String[] args) {
+        int people = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threshold = args.length > 1 ? Integer.parseInt(args[1]) : 16_384;
+
+        var sequential = diffListElementsSorted(Diff.personDifferencer(), Person::getName);
+        var parallel = diffListElementsSortedParallel(Diff.personDifferencer(), Person::getName, threshold);
+
+        var left = AddressBooks.generate(people, 42).getPeopleList();
+        var right = AddressBooks.withChanges(AddressBooks.generate(people, 42), people / 100, 7).getPeopleList();
+
+        var expected = sequential.differences(Path.root(), left, right).map(Object::toString).collect(Collectors.toList());
+        var actual = parallel.differences(Path.root(), left, right).map(Object::toString).collect(Collectors.toList());
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException("parallel diff differs from the sequential one");
+        }
+
+        System.out.println("cores: " + Runtime.getRuntime().availableProcessors());
+        Bench.run("diffListElementsSorted", 2, 5,
+                () -> sequential.differences(Path.root(), left, right).count());
+        Bench.run("diffListElementsSortedParallel", 2, 5,
+                () -> parallel.differences(Path.root(), left, right).count());
+        // ranges are diffed only a window ahead of the consumer, so the first difference does not wait for the rest
+        Bench.run("diffListElementsSorted / first difference", 2, 5,
+                () -> sequential.differences(Path.root(), left, right).findFirst());
+        Bench.run("diffListElementsSortedParallel / first difference", 2, 5,
+                () -> parallel.differences(Path.root(), left, right).findFirst());
+    }
+}
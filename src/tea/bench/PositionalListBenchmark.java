@@ -0,0 +1,57 @@
+package tea.bench;
+
+import com.example.tutorial.AddressBookProtos.Person;
+import tea.Diff;
+import tea.comparator.Difference;
+import tea.comparator.Differencer;
+import tea.comparator.Path;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static tea.comparator.RecursiveDifferencer.*;
+
+// Index-aligned diffListElements against the previous boxed Map<Integer, V> implementation.
+public class PositionalListBenchmark {
+
+    public static void main(String[] args) {
+        int people = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        var positional = diffListElements(Diff.personDifferencer());
+        var boxed = boxedIndexMap(Diff.personDifferencer());
+
+        var left = AddressBooks.generate(people, 42).getPeopleList();
+        var right = AddressBooks.withChanges(AddressBooks.generate(people + people / 100, 42), people / 100, 7).getPeopleList();
+
+        // The boxed map only iterates in index order below 65536 elements (HashMap spreads higher hash bits),
+        // so the check compares the differences regardless of order.
+        if (!render(positional, left, right).equals(render(boxed, left, right))) {
+            throw new IllegalStateException("positional and boxed index map differencers disagree");
+        }
+
+        Bench.run("diffListElements / boxed index map", 2, 5,
+                () -> boxed.differences(Path.root(), left, right).count());
+        Bench.run("diffListElements / index-aligned", 2, 5,
+                () -> positional.differences(Path.root(), left, right).count());
+    }
+
+    private static <V> Differencer<List<V>, List<V>> boxedIndexMap(Differencer<V, V> elementDiff) {
+        return (Path path, List<V> left, List<V> right) ->
+                PositionalListBenchmark.<Integer, V>mapValues(elementDiff).differences(path, indexMap(left), indexMap(right));
+    }
+
+    private static <K, V> Differencer<Map<K, V>, Map<K, V>> mapValues(Differencer<V, V> valueDiff) {
+        return diffMapValues(valueDiff);
+    }
+
+    private static <V> Map<Integer, V> indexMap(List<V> list) {
+        return IntStream.range(0, list.size()).boxed().collect(Collectors.toMap(Function.identity(), list::get));
+    }
+
+    private static List<String> render(Differencer<List<Person>, List<Person>> differencer, List<Person> left, List<Person> right) {
+        return differencer.differences(Path.root(), left, right).map(Difference::toString).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,48 @@
+package tea.bench;
+
+import com.example.tutorial.AddressBookProtos.AddressBook;
+import com.example.tutorial.AddressBookProtos.Person;
+import com.google.protobuf.InvalidProtocolBufferException;
+import tea.comparator.Differencer;
+import tea.comparator.Path;
+
+import static tea.comparator.RecursiveDifferencer.*;
+
+// Full descent into every person against pruning of provably equal persons.
+public class PruningBenchmark {
+
+    public static void main(String[] args) {
+        int people = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        var person = compose(
+                diffChildWithEquals(Person::getEmail, "email"),
+                diffChildWithEquals(Person::getId, "id"),
+                diffChild(Person::getPhonesList, "phones", diffListElements(compose(
+                        diffChildWithEquals(Person.PhoneNumber::getNumber, "number"),
+                        diffChildWithEquals(Person.PhoneNumber::getType, "type")))));
+
+        // parsed copies, so that unchanged persons are equal but not the same instances
+        var left = AddressBooks.generate(people, 42);
+        var right = copy(AddressBooks.withChanges(left, people / 100, 7));
+
+        run("full descent", book(person), left, right);
+        run("pruneEqual", book(pruneEqual(person)), left, right);
+        run("pruneEqualBytes", book(pruneEqualBytes(person)), left, right);
+    }
+
+    private static Differencer<AddressBook, AddressBook> book(Differencer<Person, Person> person) {
+        return diffChild(AddressBook::getPeopleList, "people", diffListElementsSorted(person, Person::getName));
+    }
+
+    private static void run(String name, Differencer<AddressBook, AddressBook> differencer, AddressBook left, AddressBook right) {
+        Bench.run(name, 2, 5, () -> differencer.differences(Path.root(), left, right).count());
+    }
+
+    private static AddressBook copy(AddressBook book) {
+        try {
+            return AddressBook.parseFrom(book.toByteString());
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
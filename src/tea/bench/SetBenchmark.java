@@ -0,0 +1,42 @@
+package tea.bench;
+
+import com.example.tutorial.AddressBookProtos.Person;
+import tea.comparator.Path;
+import tea.comparator.RecursiveDifferencer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static tea.comparator.RecursiveDifferencer.*;
+
+// Positional against hashed multiset diff on a reordered phone list with a few replaced numbers.
+public class SetBenchmark {
+
+    public static void main(String[] args) {
+        int phones = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int changes = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        var phoneDiff = compose(
+                diffChildWithEquals(Person.PhoneNumber::getNumber, "number"),
+                diffChildWithEquals(Person.PhoneNumber::getType, "type"));
+        var positional = diffListElements(phoneDiff);
+        var asSet = RecursiveDifferencer.<Person.PhoneNumber>diffListElementsAsSet();
+
+        var left = new ArrayList<Person.PhoneNumber>();
+        for (int i = 0; i < phones; i++) {
+            left.add(Person.PhoneNumber.newBuilder().setNumber("0800-" + i).build());
+        }
+        List<Person.PhoneNumber> right = new ArrayList<>(left);
+        Collections.shuffle(right, new Random(7));
+        for (int c = 0; c < changes; c++) {
+            right.set(c, Person.PhoneNumber.newBuilder().setNumber("changed-" + c).build());
+        }
+
+        System.out.println("positional differences: " + positional.differences(Path.root(), left, right).count());
+        System.out.println("set differences: " + asSet.differences(Path.root(), left, right).count());
+        Bench.run("diffListElements", 2, 5, () -> positional.differences(Path.root(), left, right).count());
+        Bench.run("diffListElementsAsSet", 2, 5, () -> asSet.differences(Path.root(), left, right).count());
+    }
+}
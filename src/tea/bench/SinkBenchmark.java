@@ -0,0 +1,37 @@
+package tea.bench;
+
+import com.example.tutorial.AddressBookProtos.AddressBook;
+import tea.comparator.Differencer;
+import tea.comparator.MessageDifferencers;
+import tea.comparator.Path;
+
+// Pull (Stream) against push (DifferenceSink) evaluation of the same differencer: time and allocated bytes per person.
+public class SinkBenchmark {
+    private static long pushed;
+
+    public static void main(String[] args) {
+        int people = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        Differencer<AddressBook, AddressBook> differencer = MessageDifferencers.builder(AddressBook.getDefaultInstance())
+                .keyBy(AddressBook.getDescriptor().findFieldByNumber(AddressBook.PEOPLE_FIELD_NUMBER), "name")
+                .pruneEqual(false)
+                .compile();
+
+        var left = AddressBooks.generate(people, 42);
+        var right = AddressBooks.withChanges(left, people / 100, 7);
+        if (differencer.differences(Path.root(), left, right).count() != push(differencer, left, right)) {
+            throw new IllegalStateException("stream and sink disagree");
+        }
+
+        Bench.run("stream / differences", 2, 5, () -> differencer.differences(Path.root(), left, right).count());
+        Bench.run("sink / differences", 2, 5, () -> push(differencer, left, right));
+        Bench.allocations("stream / allocated per person", 2, people, () -> differencer.differences(Path.root(), left, right).count());
+        Bench.allocations("sink / allocated per person", 2, people, () -> push(differencer, left, right));
+    }
+
+    private static long push(Differencer<AddressBook, AddressBook> differencer, AddressBook left, AddressBook right) {
+        pushed = 0;
+        differencer.differences(Path.root(), left, right, d -> pushed++);
+        return pushed;
+    }
+}
@@ -0,0 +1,108 @@
+package tea.comparator;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+// Bounds a diff by a number of differences and a deadline. The limit travels with the root Path, and the
+// differencers stop iterating once it is reached, so evaluation stops at the source rather than at the end.
+// It may be checked from several threads, e.g. by the tasks of a parallel keyed diff.
+public class DiffLimit {
+    public static final DiffLimit NONE = new DiffLimit(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    // the deadline is only read every CLOCK_INTERVAL checks
+    private static final int CLOCK_INTERVAL = 64;
+
+    private final long maxDifferences;
+    private final long deadline;
+    private final AtomicLong emitted = new AtomicLong();
+    // the first reason the limit was reached by wins
+    private final AtomicReference<String> reason = new AtomicReference<>();
+    private final AtomicInteger checks = new AtomicInteger();
+
+    private DiffLimit(long maxDifferences, long deadline) {
+        this.maxDifferences = maxDifferences;
+        this.deadline = deadline;
+    }
+
+    public static DiffLimit of(long maxDifferences, Duration timeBudget) {
+        long now = System.nanoTime();
+        long budget;
+        try {
+            budget = timeBudget.toNanos();
+        } catch (ArithmeticException e) {
+            budget = Long.MAX_VALUE;
+        }
+        return new DiffLimit(maxDifferences, budget >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + budget);
+    }
+
+    public static DiffLimit maxDifferences(long maxDifferences) {
+        return new DiffLimit(maxDifferences, Long.MAX_VALUE);
+    }
+
+    // Passes differences through while the limit allows, counting them.
+    public Stream<Difference> bound(Stream<Difference> differences) {
+        return this == NONE ? differences : differences.takeWhile(d -> admit());
+    }
+
+    // Passes differences through to sink while the limit allows, counting them; push evaluation stops once it is reached.
+    public DifferenceSink bound(DifferenceSink sink) {
+        if (this == NONE) {
+            return sink;
+        }
+        return new DifferenceSink() {
+            @Override
+            public void accept(Difference difference) {
+                if (admit()) {
+                    sink.accept(difference);
+                }
+            }
+
+            @Override
+            public boolean done() {
+                return reached() || sink.done();
+            }
+        };
+    }
+
+    // Whether the diff was cut off by this limit.
+    public boolean truncated() {
+        return reason.get() != null;
+    }
+
+    // Why the diff was cut off, or null if it was not.
+    public String reason() {
+        return reason.get();
+    }
+
+    // How many more differences are admitted before the limit is reached.
+    long remaining() {
+        return Math.max(0, maxDifferences - emitted.get());
+    }
+
+    boolean reached() {
+        if (this == NONE) {
+            return false;
+        }
+        if (reason.get() != null) {
+            return true;
+        }
+        if (deadline != Long.MAX_VALUE && checks.incrementAndGet() % CLOCK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+            reason.compareAndSet(null, "time budget exceeded");
+        }
+        return reason.get() != null;
+    }
+
+    private boolean admit() {
+        if (reached()) {
+            return false;
+        }
+        if (emitted.incrementAndGet() > maxDifferences) {
+            reason.compareAndSet(null, "more than " + maxDifferences + " differences");
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,190 @@
+package tea.comparator;
+
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Invocation counts, differences emitted and time spent per path pattern, e.g. /people/*/phones, collected from the
+// stream and push modes of the differencers that instrument() wraps. Times include nested differencers but not the
+// time the consumer of the differences spends on them. Differencers that are not wrapped pay nothing.
+public class DiffMetrics {
+    private final Node root = new Node();
+
+    public static class Stats {
+        private final long calls;
+        private final long differences;
+        private final long nanos;
+
+        Stats(long calls, long differences, long nanos) {
+            this.calls = calls;
+            this.differences = differences;
+            this.nanos = nanos;
+        }
+
+        public long calls() {
+            return calls;
+        }
+
+        public long differences() {
+            return differences;
+        }
+
+        public long nanos() {
+            return nanos;
+        }
+    }
+
+    // Records every evaluation of differencer under the pattern of the path it is evaluated at.
+    public <L, R> Differencer<L, R> instrument(Differencer<L, R> differencer) {
+        return new Differencer<>() {
+            @Override
+            public Stream<Difference> differences(Path path, L left, R right) {
+                var node = node(path);
+                var timed = new Timed(node);
+                node.calls.increment();
+                timed.source = differencer.differences(path, left, right).spliterator();
+                timed.stop();
+                return StreamSupport.stream(timed, false);
+            }
+
+            // The boolean mode has no path to record under, so it is passed through.
+            @Override
+            public boolean anyDifference(L left, R right) {
+                return differencer.anyDifference(left, right);
+            }
+
+            @Override
+            public void differences(Path path, L left, R right, DifferenceSink sink) {
+                var node = node(path);
+                var timed = new TimedSink(node, sink);
+                node.calls.increment();
+                differencer.differences(path, left, right, timed);
+                timed.stop();
+            }
+        };
+    }
+
+    // The collected statistics by pattern, in pattern order.
+    public Map<String, Stats> stats() {
+        var stats = new TreeMap<String, Stats>();
+        root.collect("", stats);
+        return stats;
+    }
+
+    // The statistics as a table, one pattern per line.
+    public String summary() {
+        var table = new StringBuilder(String.format("%-40s %12s %12s %12s %12s%n", "pattern", "calls", "differences", "total ms", "ns/call"));
+        stats().forEach((pattern, stats) -> table.append(String.format("%-40s %12d %12d %12.3f %12.1f%n",
+                pattern.isEmpty() ? "/" : pattern, stats.calls, stats.differences, stats.nanos / 1e6,
+                stats.calls == 0 ? 0.0 : (double) stats.nanos / stats.calls)));
+        return table.toString();
+    }
+
+    // Finds the pattern's node by walking up the path, so recording a call does not render the path.
+    private Node node(Path path) {
+        if (path.parent() == null) {
+            return root;
+        }
+        return node(path.parent()).child(path.isElement() ? "*" : String.valueOf(path.segment()));
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new ConcurrentHashMap<>();
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder differences = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        Node child(String segment) {
+            var child = children.get(segment);
+            return child != null ? child : children.computeIfAbsent(segment, s -> new Node());
+        }
+
+        void collect(String pattern, Map<String, Stats> stats) {
+            if (calls.sum() > 0) {
+                stats.put(pattern, new Stats(calls.sum(), differences.sum(), nanos.sum()));
+            }
+            children.forEach((segment, child) -> child.collect(pattern + '/' + segment, stats));
+        }
+    }
+
+    // Times the stream while it is consumed, pausing the clock while a difference is handed downstream.
+    private static class Timed implements Spliterator<Difference>, Consumer<Difference> {
+        private final Node node;
+        private Spliterator<Difference> source;
+        private Consumer<? super Difference> action;
+        private long start = System.nanoTime();
+
+        Timed(Node node) {
+            this.node = node;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Difference> action) {
+            this.action = action;
+            start = System.nanoTime();
+            boolean advanced = source.tryAdvance(this);
+            stop();
+            return advanced;
+        }
+
+        @Override
+        public void accept(Difference difference) {
+            stop();
+            node.differences.increment();
+            action.accept(difference);
+            start = System.nanoTime();
+        }
+
+        void stop() {
+            node.nanos.add(System.nanoTime() - start);
+        }
+
+        @Override
+        public Spliterator<Difference> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & Spliterator.ORDERED;
+        }
+    }
+
+    private static class TimedSink implements DifferenceSink {
+        private final Node node;
+        private final DifferenceSink sink;
+        private long start = System.nanoTime();
+
+        TimedSink(Node node, DifferenceSink sink) {
+            this.node = node;
+            this.sink = sink;
+        }
+
+        @Override
+        public void accept(Difference difference) {
+            stop();
+            node.differences.increment();
+            sink.accept(difference);
+            start = System.nanoTime();
+        }
+
+        @Override
+        public boolean done() {
+            return sink.done();
+        }
+
+        void stop() {
+            node.nanos.add(System.nanoTime() - start);
+        }
+    }
+}
@@ -1,28 +1,187 @@
 package tea.comparator;
 
+import com.google.protobuf.MessageOrBuilder;
+import com.google.protobuf.TextFormat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
 import java.util.stream.Stream;
 
+// A structured difference; the text form is only built by toString() or render().
 public class Difference {
-    private final String msg;
+    public enum Kind {
+        UNEQUAL,
+        LEFT_ONLY,
+        RIGHT_ONLY,
+        MOVED
+    }
+
+    private final Kind kind;
+    private final Path path;
+    private final Object left;
+    private final Object right;
+    private final int fromIndex;
+    private final int toIndex;
+
+    private Difference(Kind kind, Path path, Object left, Object right) {
+        this(kind, path, left, right, -1, -1);
+    }
+
+    private Difference(Kind kind, Path path, Object left, Object right, int fromIndex, int toIndex) {
+        this.kind = kind;
+        this.path = path;
+        this.left = left;
+        this.right = right;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+    }
+
+    public Kind kind() {
+        return kind;
+    }
 
-    private Difference(String msg) {
-        this.msg = msg;
+    public Path path() {
+        return path;
+    }
+
+    // The left value, or null for RIGHT_ONLY.
+    public Object left() {
+        return left;
+    }
+
+    // The right value, or null for LEFT_ONLY.
+    public Object right() {
+        return right;
+    }
+
+    // For MOVED, the element's index in the left list; -1 otherwise.
+    public int fromIndex() {
+        return fromIndex;
+    }
+
+    // For MOVED, the element's index in the right list; -1 otherwise.
+    public int toIndex() {
+        return toIndex;
     }
 
     @Override
     public String toString() {
-        return msg;
+        return render(Integer.MAX_VALUE);
+    }
+
+    // Renders the difference, cutting each value's text at maxValueLength characters.
+    public String render(int maxValueLength) {
+        if (maxValueLength < 0) {
+            throw new IllegalArgumentException("maxValueLength must not be negative: " + maxValueLength);
+        }
+        switch (kind) {
+            case UNEQUAL:
+                return path + ":\n\t" + bounded(left, maxValueLength) + " != " + bounded(right, maxValueLength);
+            case LEFT_ONLY:
+                return path + " = " + bounded(left, maxValueLength) + " exists in left only!";
+            case RIGHT_ONLY:
+                return path + " = " + bounded(right, maxValueLength) + " exists in right only!";
+            case MOVED:
+                return path + " = " + bounded(left, maxValueLength) + " moved from " + fromIndex + " to " + toIndex;
+            default:
+                throw new IllegalStateException("Unknown kind " + kind);
+        }
     }
 
     static <T> Difference rightOnly(Path path, T right) {
-        return new Difference(path.toString() + " = " + right.toString() + " exists in right only!");
+        return new Difference(Kind.RIGHT_ONLY, path, null, right);
     }
 
     static <T> Difference leftOnly(Path path, T left) {
-        return new Difference(path.toString() + " = " + left.toString() + " exists in left only!");
+        return new Difference(Kind.LEFT_ONLY, path, left, null);
+    }
+
+    static <T> Difference moved(Path path, T left, T right, int fromIndex, int toIndex) {
+        return new Difference(Kind.MOVED, path, left, right, fromIndex, toIndex);
     }
 
     static <T> Stream<Difference> unequal(Path path, T left, T right) {
-        return Stream.of(new Difference(path.toString() + ":\n\t" + left.toString() + " != " + right.toString()));
+        return Stream.of(unequalValues(path, left, right));
+    }
+
+    static <T> Difference unequalValues(Path path, T left, T right) {
+        return new Difference(Kind.UNEQUAL, path, left, right);
+    }
+
+    private static String bounded(Object value, int maxLength) {
+        var text = new BoundedAppendable(maxLength);
+        try {
+            print(value, text);
+        } catch (BoundedAppendable.Full ignored) {
+            // the rest of the value would be cut anyway
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
+
+    // Writes the value as String.valueOf would, but collections element by element, so that a cut stops early.
+    private static void print(Object value, Appendable text) throws IOException {
+        if (value instanceof MessageOrBuilder) {
+            TextFormat.print((MessageOrBuilder) value, text);
+        } else if (value instanceof Collection) {
+            text.append('[');
+            var separator = "";
+            for (var element : (Collection<?>) value) {
+                text.append(separator);
+                print(element, text);
+                separator = ", ";
+            }
+            text.append(']');
+        } else {
+            text.append(String.valueOf(value));
+        }
+    }
+
+    // Refuses text past maxLength so that huge messages are never printed in full.
+    private static class BoundedAppendable implements Appendable {
+        private static class Full extends RuntimeException {
+            private static final long serialVersionUID = 1L;
+
+            Full() {
+                super(null, null, false, false);
+            }
+        }
+
+        private final StringBuilder text = new StringBuilder();
+        private final int maxLength;
+        private boolean truncated;
+
+        BoundedAppendable(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            int room = maxLength - text.length();
+            if (end - start > room) {
+                text.append(csq, start, start + room);
+                truncated = true;
+                throw new Full();
+            }
+            text.append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            return append(String.valueOf(c));
+        }
+
+        @Override
+        public String toString() {
+            return truncated ? text + "..." : text.toString();
+        }
     }
 }
@@ -0,0 +1,11 @@
+package tea.comparator;
+
+// Receives differences pushed by Differencer.differences(Path, L, R, DifferenceSink).
+public interface DifferenceSink {
+    void accept(Difference difference);
+
+    // Push evaluation stops early once this returns true.
+    default boolean done() {
+        return false;
+    }
+}
@@ -4,4 +4,17 @@ import java.util.stream.Stream;
 
 public interface Differencer<L, R> {
     Stream<Difference> differences(Path path, L left, R right);
+
+    // Boolean evaluation mode: stops at the first difference without rendering it.
+    default boolean anyDifference(L left, R right) {
+        return differences(Path.root(), left, right).findAny().isPresent();
+    }
+
+    // Push evaluation mode: writes the differences into sink instead of building nested streams.
+    default void differences(Path path, L left, R right, DifferenceSink sink) {
+        var differences = differences(path, left, right).spliterator();
+        while (!sink.done() && differences.tryAdvance(sink::accept)) {
+            // keep pulling
+        }
+    }
 }
@@ -0,0 +1,203 @@
+package tea.comparator;
+
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Compiles a MessageDifferencers spec into MethodHandle chains with direct getter calls per message type.
+// A hot chain is customized by the JVM into code specific to that type, so field checks inline instead of
+// going through the shared, megamorphic lambdas of RecursiveDifferencer.compose.
+class DifferencerCompiler {
+    private static final MethodType TEST = MethodType.methodType(boolean.class, Object.class, Object.class);
+    private static final MethodHandle TRUE = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, true), 0, Object.class, Object.class);
+    private static final MethodHandle FALSE = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, false), 0, Object.class, Object.class);
+    private static final MethodHandle PROVABLY_EQUAL;
+    private static final MethodHandle ANY_DIFFERENCE;
+    private static final MethodHandle NOT_PROVABLY_EQUAL;
+    private static final Map<Class<?>, MethodHandle> NOT_EQUAL = new HashMap<>();
+
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            PROVABLY_EQUAL = lookup.findStatic(RecursiveDifferencer.class, "provablyEqual", TEST);
+            ANY_DIFFERENCE = lookup.findVirtual(Differencer.class, "anyDifference", TEST);
+            NOT_PROVABLY_EQUAL = lookup.findStatic(DifferencerCompiler.class, "notProvablyEqual", TEST);
+            for (var type : new Class<?>[]{int.class, long.class, float.class, double.class, boolean.class, Object.class}) {
+                NOT_EQUAL.put(type, lookup.findStatic(DifferencerCompiler.class, "notEqual", MethodType.methodType(boolean.class, type, type)));
+            }
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final MessageDifferencers.Builder spec;
+    private final Map<List<Object>, Differencer<Object, Object>> compiled = new HashMap<>();
+    private final Map<List<Object>, MethodHandle> tests = new HashMap<>();
+
+    DifferencerCompiler(MessageDifferencers.Builder spec) {
+        this.spec = spec;
+    }
+
+    @SuppressWarnings("unchecked")
+    <M extends Message> Differencer<M, M> compile(Message prototype, MessageDifferencers.Scope scope) {
+        return (Differencer<M, M>) (Differencer<?, ?>) differencer(prototype, scope);
+    }
+
+    private Differencer<Object, Object> differencer(Message prototype, MessageDifferencers.Scope scope) {
+        var type = prototype.getDescriptorForType();
+        var key = List.<Object>of(type, scope);
+        var existing = compiled.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        // recursive message types call back into the chain being compiled
+        var site = new MutableCallSite(TEST);
+        tests.put(key, site.dynamicInvoker());
+        var result = new Compiled();
+        compiled.put(key, result);
+
+        var fields = scope.fields(type);
+        var fieldTests = new MethodHandle[fields.size()];
+        result.fieldGates = new MethodHandle[fields.size()];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Differencer<Object, Object>[] fieldDifferencers = new Differencer[fields.size()];
+        result.fields = fieldDifferencers;
+        for (int i = 0; i < fields.size(); i++) {
+            var fieldScope = scope.field(fields.get(i));
+            fieldDifferencers[i] = spec.fieldDifferencer(prototype, fields.get(i), fieldScope, this::differencer);
+            fieldTests[i] = fieldTest(prototype, fields.get(i), fieldScope, fieldDifferencers[i]);
+            result.fieldGates[i] = fieldGate(prototype, fields.get(i), fieldTests[i]);
+        }
+
+        var chain = FALSE;
+        for (int i = fields.size() - 1; i >= 0; i--) {
+            chain = MethodHandles.guardWithTest(fieldTests[i], TRUE, chain);
+        }
+        if (spec.prune(scope)) {
+            chain = MethodHandles.guardWithTest(PROVABLY_EQUAL, FALSE, chain);
+        }
+        result.prune = spec.prune(scope);
+        result.test = chain;
+        site.setTarget(chain);
+        MutableCallSite.syncAll(new MutableCallSite[]{site});
+        return result;
+    }
+
+    // (Object, Object)boolean: whether the field differs between two messages of the prototype's type.
+    private MethodHandle fieldTest(Message prototype, FieldDescriptor field, MessageDifferencers.Scope scope, Differencer<Object, Object> fieldDifferencer) {
+        var getter = MessageDifferencers.generatedGetter(prototype.getClass(), field);
+        // an override may be looser or stricter than equals(), so only it can tell whether the field differs
+        if (getter == null || field.isRepeated() || spec.overridden(field)) {
+            return ANY_DIFFERENCE.bindTo(fieldDifferencer);
+        }
+        if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+            // the field's message type was compiled by spec.fieldDifferencer
+            var typed = getter.asType(MethodType.methodType(Object.class, Object.class));
+            return MethodHandles.filterArguments(tests.get(List.<Object>of(field.getMessageType(), scope)), 0, typed, typed);
+        }
+
+        var valueType = getter.type().returnType();
+        var notEqual = NOT_EQUAL.get(valueType.isPrimitive() ? valueType : Object.class);
+        var typed = getter.asType(MethodType.methodType(notEqual.type().parameterType(0), Object.class));
+        return MethodHandles.filterArguments(notEqual, 0, typed, typed);
+    }
+
+    // (Object, Object)boolean: a cheap test run before the field's differences, so that equal fields are skipped
+    // without walking them twice, or null if there is none. Scalar fields use their field test, which compares
+    // directly; repeated and message fields are skipped only when provably equal.
+    private MethodHandle fieldGate(Message prototype, FieldDescriptor field, MethodHandle fieldTest) {
+        var getter = MessageDifferencers.getter(prototype.getClass(), field);
+        if (getter == null || spec.overridden(field)) {
+            return null;
+        }
+        if (!field.isRepeated() && field.getJavaType() != FieldDescriptor.JavaType.MESSAGE) {
+            return fieldTest;
+        }
+        return MethodHandles.filterArguments(NOT_PROVABLY_EQUAL, 0, getter, getter);
+    }
+
+    private static boolean notProvablyEqual(Object left, Object right) {
+        return !RecursiveDifferencer.provablyEqual(left, right);
+    }
+
+    private static boolean notEqual(int left, int right) {
+        return left != right;
+    }
+
+    private static boolean notEqual(long left, long right) {
+        return left != right;
+    }
+
+    // Same as the generated equals(): floating point values compare by bits.
+    private static boolean notEqual(float left, float right) {
+        return Float.floatToIntBits(left) != Float.floatToIntBits(right);
+    }
+
+    private static boolean notEqual(double left, double right) {
+        return Double.doubleToLongBits(left) != Double.doubleToLongBits(right);
+    }
+
+    private static boolean notEqual(boolean left, boolean right) {
+        return left != right;
+    }
+
+    private static boolean notEqual(Object left, Object right) {
+        return !left.equals(right);
+    }
+
+    private static class Compiled implements Differencer<Object, Object> {
+        private MethodHandle test;
+        // see fieldGate; fields without a gate are diffed without testing them first
+        private MethodHandle[] fieldGates;
+        private Differencer<Object, Object>[] fields;
+        private boolean prune;
+
+        @Override
+        public Stream<Difference> differences(Path path, Object left, Object right) {
+            if (prune && RecursiveDifferencer.provablyEqual(left, right)) {
+                return Stream.empty();
+            }
+            // lazy, so that a consumer that stops early does not test the remaining fields
+            return IntStream.range(0, fields.length).boxed().flatMap(i -> fieldGates[i] != null && !invoke(fieldGates[i], left, right)
+                    ? Stream.empty()
+                    : fields[i].differences(path, left, right));
+        }
+
+        @Override
+        public boolean anyDifference(Object left, Object right) {
+            return invoke(test, left, right);
+        }
+
+        @Override
+        public void differences(Path path, Object left, Object right, DifferenceSink sink) {
+            if (prune && RecursiveDifferencer.provablyEqual(left, right)) {
+                return;
+            }
+            for (int i = 0; i < fields.length && !sink.done(); i++) {
+                if (fieldGates[i] == null || invoke(fieldGates[i], left, right)) {
+                    fields[i].differences(path, left, right, sink);
+                }
+            }
+        }
+
+        private static boolean invoke(MethodHandle test, Object left, Object right) {
+            try {
+                return (boolean) test.invokeExact(left, right);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package tea.comparator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+// Longest common subsequence of two lists by Myers' O(ND) algorithm.
+// Small edit distances keep the greedy forward trace; beyond MAX_TRACED_EDITS the linear-space
+// divide-and-conquer variant (middle snake) is used instead, so memory stays O(N + M).
+class EditScript {
+    static final int MAX_TRACED_EDITS = 1024;
+
+    private EditScript() {
+    }
+
+    // For every left index, the index of the right element it is matched with, or -1 if it is not in the LCS.
+    static <V> int[] match(List<V> left, List<V> right, BiPredicate<V, V> equal) {
+        var matches = new int[left.size()];
+        Arrays.fill(matches, -1);
+        new Matcher<>(left, right, equal, matches).matchTrimmed(0, left.size(), 0, right.size());
+        return matches;
+    }
+
+    private static class Matcher<V> {
+        private final List<V> a;
+        private final List<V> b;
+        private final BiPredicate<V, V> equal;
+        private final int[] matches;
+
+        Matcher(List<V> a, List<V> b, BiPredicate<V, V> equal, int[] matches) {
+            this.a = a;
+            this.b = b;
+            this.equal = equal;
+            this.matches = matches;
+        }
+
+        // Strips the common prefix and suffix first: nearly equal lists then cost O(N).
+        void matchTrimmed(int aLo, int aHi, int bLo, int bHi) {
+            while (aLo < aHi && bLo < bHi && equal.test(a.get(aLo), b.get(bLo))) {
+                matches[aLo++] = bLo++;
+            }
+            while (aLo < aHi && bLo < bHi && equal.test(a.get(aHi - 1), b.get(bHi - 1))) {
+                matches[--aHi] = --bHi;
+            }
+            if (aLo == aHi || bLo == bHi) {
+                return;
+            }
+            if (!greedy(aLo, aHi, bLo, bHi)) {
+                linear(aLo, aHi, bLo, bHi);
+            }
+        }
+
+        // Forward greedy search keeping one V snapshot per edit; gives up past MAX_TRACED_EDITS.
+        private boolean greedy(int aLo, int aHi, int bLo, int bHi) {
+            int n = aHi - aLo;
+            int m = bHi - bLo;
+            int max = Math.min(n + m, MAX_TRACED_EDITS);
+            int offset = max + 1;
+            var v = new int[2 * max + 3];
+            var trace = new ArrayList<int[]>();
+
+            for (int d = 0; d <= max; d++) {
+                trace.add(Arrays.copyOfRange(v, offset - d, offset + d + 1));
+                for (int k = -d; k <= d; k += 2) {
+                    int x = (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]))
+                            ? v[offset + k + 1]
+                            : v[offset + k - 1] + 1;
+                    int y = x - k;
+                    while (x < n && y < m && equal.test(a.get(aLo + x), b.get(bLo + y))) {
+                        x++;
+                        y++;
+                    }
+                    v[offset + k] = x;
+                    if (x >= n && y >= m) {
+                        backtrack(trace, d, n, m, aLo, bLo);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private void backtrack(List<int[]> trace, int edits, int x, int y, int aLo, int bLo) {
+            for (int d = edits; d > 0; d--) {
+                // snapshot d holds V after d - 1 edits, for diagonals -d..d
+                var v = trace.get(d);
+                int k = x - y;
+                int previousK = (k == -d || (k != d && v[k - 1 + d] < v[k + 1 + d])) ? k + 1 : k - 1;
+                int previousX = v[previousK + d];
+                int previousY = previousX - previousK;
+                int snakeStartX = previousK == k + 1 ? previousX : previousX + 1;
+                while (x > snakeStartX) {
+                    matches[aLo + --x] = bLo + --y;
+                }
+                x = previousX;
+                y = previousY;
+            }
+            while (x > 0) {
+                matches[aLo + --x] = bLo + --y;
+            }
+        }
+
+        private void linear(int aLo, int aHi, int bLo, int bHi) {
+            var snake = middleSnake(aLo, aHi, bLo, bHi);
+            matchTrimmed(aLo, aLo + snake[0], bLo, bLo + snake[1]);
+            for (int x = snake[0], y = snake[1]; x < snake[2]; x++, y++) {
+                matches[aLo + x] = bLo + y;
+            }
+            matchTrimmed(aLo + snake[2], aHi, bLo + snake[3], bHi);
+        }
+
+        // Returns {x, y, u, v}: a snake from (x, y) to (u, v) on an optimal path, relative to (aLo, bLo).
+        private int[] middleSnake(int aLo, int aHi, int bLo, int bHi) {
+            int n = aHi - aLo;
+            int m = bHi - bLo;
+            int delta = n - m;
+            boolean odd = (delta & 1) != 0;
+            int max = (n + m + 1) / 2;
+            int offset = max + 1;
+            var forward = new int[2 * max + 3];
+            var backward = new int[2 * max + 3];
+
+            for (int d = 0; d <= max; d++) {
+                for (int k = -d; k <= d; k += 2) {
+                    int x = (k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1]))
+                            ? forward[offset + k + 1]
+                            : forward[offset + k - 1] + 1;
+                    int y = x - k;
+                    int startX = x;
+                    int startY = y;
+                    while (x < n && y < m && equal.test(a.get(aLo + x), b.get(bLo + y))) {
+                        x++;
+                        y++;
+                    }
+                    forward[offset + k] = x;
+                    int c = delta - k;
+                    if (odd && c >= -(d - 1) && c <= d - 1 && x + backward[offset + c] >= n) {
+                        return new int[]{startX, startY, x, y};
+                    }
+                }
+                for (int c = -d; c <= d; c += 2) {
+                    int x = (c == -d || (c != d && backward[offset + c - 1] < backward[offset + c + 1]))
+                            ? backward[offset + c + 1]
+                            : backward[offset + c - 1] + 1;
+                    int y = x - c;
+                    int startX = x;
+                    int startY = y;
+                    while (x < n && y < m && equal.test(a.get(aHi - 1 - x), b.get(bHi - 1 - y))) {
+                        x++;
+                        y++;
+                    }
+                    backward[offset + c] = x;
+                    int k = delta - c;
+                    if (!odd && k >= -d && k <= d && x + forward[offset + k] >= n) {
+                        return new int[]{n - x, m - y, n - startX, m - startY};
+                    }
+                }
+            }
+            throw new IllegalStateException("No middle snake found");
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package tea.comparator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Diffs ordered lists by an edit script: elements outside the longest common subsequence are reported as
+// moved when an equal element was inserted elsewhere, as changed when a deletion and an insertion share a gap,
+// and as left-only or right-only otherwise. Elements are equal by equals() unless an equal predicate is given, e.g. one
+// that compares only some fields; moves are then found by scanning the deleted elements instead of hashing them.
+class EditScriptListDifferencer<V> implements Differencer<List<V>, List<V>> {
+    private final Differencer<V, V> elementDiff;
+    private final BiPredicate<V, V> equal;
+    private final boolean hashed;
+
+    EditScriptListDifferencer(Differencer<V, V> elementDiff) {
+        this.elementDiff = elementDiff;
+        this.equal = (l, r) -> l.hashCode() == r.hashCode() && l.equals(r);
+        this.hashed = true;
+    }
+
+    EditScriptListDifferencer(Differencer<V, V> elementDiff, BiPredicate<V, V> equal) {
+        this.elementDiff = elementDiff;
+        this.equal = equal;
+        this.hashed = false;
+    }
+
+    @Override
+    public Stream<Difference> differences(Path path, List<V> left, List<V> right) {
+        var matches = EditScript.match(left, right, equal);
+        var movedTo = movedTo(left, right, matches);
+        var movedRight = new boolean[right.size()];
+        for (int to : movedTo) {
+            if (to >= 0) {
+                movedRight[to] = true;
+            }
+        }
+
+        var differences = new ArrayList<Stream<Difference>>();
+        int i = 0;
+        int j = 0;
+        while (i < left.size() || j < right.size()) {
+            // the gap runs up to the next pair of matched elements
+            int gapEndLeft = i;
+            while (gapEndLeft < left.size() && matches[gapEndLeft] < 0) {
+                gapEndLeft++;
+            }
+            int gapEndRight = gapEndLeft < left.size() ? matches[gapEndLeft] : right.size();
+
+            var deleted = new ArrayList<Integer>();
+            for (; i < gapEndLeft; i++) {
+                int to = movedTo[i];
+                if (to >= 0) {
+                    differences.add(Stream.of(Difference.moved(path.element(i), left.get(i), right.get(to), i, to)));
+                } else {
+                    deleted.add(i);
+                }
+            }
+            var inserted = new ArrayList<Integer>();
+            for (; j < gapEndRight; j++) {
+                if (!movedRight[j]) {
+                    inserted.add(j);
+                }
+            }
+
+            int changed = Math.min(deleted.size(), inserted.size());
+            for (int c = 0; c < changed; c++) {
+                int l = deleted.get(c);
+                differences.add(elementDiff.differences(path.element(l), left.get(l), right.get(inserted.get(c))));
+            }
+            for (int l : deleted.subList(changed, deleted.size())) {
+                differences.add(Stream.of(Difference.leftOnly(path.element(l), left.get(l))));
+            }
+            for (int r : inserted.subList(changed, inserted.size())) {
+                differences.add(Stream.of(Difference.rightOnly(path.element(r), right.get(r))));
+            }
+
+            // skip the matched pair that closes the gap
+            i++;
+            j++;
+        }
+        return differences.stream().flatMap(Function.identity());
+    }
+
+    @Override
+    public boolean anyDifference(List<V> left, List<V> right) {
+        if (left.size() != right.size()) {
+            return true;
+        }
+        for (int i = 0; i < left.size(); i++) {
+            if (elementDiff.anyDifference(left.get(i), right.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Pairs deleted elements with equal inserted ones: for every left index, the right index it moved to or -1.
+    private int[] movedTo(List<V> left, List<V> right, int[] matches) {
+        if (!hashed) {
+            return movedToScanning(left, right, matches);
+        }
+        var matchedRight = new boolean[right.size()];
+        var deleted = new HashMap<V, ArrayDeque<Integer>>();
+        for (int i = 0; i < left.size(); i++) {
+            if (matches[i] >= 0) {
+                matchedRight[matches[i]] = true;
+            } else {
+                deleted.computeIfAbsent(left.get(i), v -> new ArrayDeque<>()).add(i);
+            }
+        }
+
+        var movedTo = new int[left.size()];
+        Arrays.fill(movedTo, -1);
+        for (int j = 0; j < right.size() && !deleted.isEmpty(); j++) {
+            if (matchedRight[j]) {
+                continue;
+            }
+            var candidates = deleted.get(right.get(j));
+            if (candidates != null) {
+                movedTo[candidates.poll()] = j;
+                if (candidates.isEmpty()) {
+                    deleted.remove(right.get(j));
+                }
+            }
+        }
+        return movedTo;
+    }
+
+    // Like movedTo, for an equal predicate that is not consistent with hashCode(): O(deleted * inserted).
+    private int[] movedToScanning(List<V> left, List<V> right, int[] matches) {
+        var matchedRight = new boolean[right.size()];
+        var deleted = new ArrayList<Integer>();
+        for (int i = 0; i < left.size(); i++) {
+            if (matches[i] >= 0) {
+                matchedRight[matches[i]] = true;
+            } else {
+                deleted.add(i);
+            }
+        }
+
+        var movedTo = new int[left.size()];
+        Arrays.fill(movedTo, -1);
+        for (int j = 0; j < right.size() && !deleted.isEmpty(); j++) {
+            if (matchedRight[j]) {
+                continue;
+            }
+            for (int c = 0; c < deleted.size(); c++) {
+                if (equal.test(left.get(deleted.get(c)), right.get(j))) {
+                    movedTo[deleted.remove(c)] = j;
+                    break;
+                }
+            }
+        }
+        return movedTo;
+    }
+}
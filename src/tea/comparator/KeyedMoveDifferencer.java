@@ -0,0 +1,170 @@
+package tea.comparator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Diffs lists of uniquely keyed elements by key while keeping their order: the elements in common that lie on a
+// longest increasing subsequence of left indices, taken in right order, keep their place, and the others are
+// reported as moved with their left and right index. The subsequence is found in O(n log n), so the fewest
+// elements are reported as moved. Left-only elements come first, then the right list in order.
+class KeyedMoveDifferencer<K, V> implements Differencer<List<V>, List<V>> {
+    private final Differencer<V, V> elementDiff;
+    private final Function<V, K> keyMap;
+
+    KeyedMoveDifferencer(Differencer<V, V> elementDiff, Function<V, K> keyMap) {
+        this.elementDiff = elementDiff;
+        this.keyMap = keyMap;
+    }
+
+    @Override
+    public Stream<Difference> differences(Path path, List<V> left, List<V> right) {
+        var plan = new Plan(left, right);
+        var differences = new ArrayList<Stream<Difference>>();
+        for (int i : plan.leftOnly) {
+            differences.add(Stream.of(Difference.leftOnly(path.element(plan.leftKeys.get(i)), left.get(i))));
+        }
+        for (int j = 0; j < right.size(); j++) {
+            var r = right.get(j);
+            var element = path.element(plan.rightKeys.get(j));
+            int i = plan.from[j];
+            if (i < 0) {
+                differences.add(Stream.of(Difference.rightOnly(element, r)));
+                continue;
+            }
+            if (plan.moved[j]) {
+                differences.add(Stream.of(Difference.moved(element, left.get(i), r, i, j)));
+            }
+            differences.add(elementDiff.differences(element, left.get(i), r));
+        }
+        return differences.stream().takeWhile(d -> !path.limit().reached()).flatMap(Function.identity());
+    }
+
+    // Equal lists have equal keys at every index, so no index map is needed.
+    @Override
+    public boolean anyDifference(List<V> left, List<V> right) {
+        if (left.size() != right.size()) {
+            return true;
+        }
+        for (int i = 0; i < left.size(); i++) {
+            var l = left.get(i);
+            var r = right.get(i);
+            if (!keyMap.apply(l).equals(keyMap.apply(r)) || elementDiff.anyDifference(l, r)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void differences(Path path, List<V> left, List<V> right, DifferenceSink sink) {
+        var plan = new Plan(left, right);
+        for (int n = 0; n < plan.leftOnly.size() && !sink.done(); n++) {
+            int i = plan.leftOnly.get(n);
+            sink.accept(Difference.leftOnly(path.element(plan.leftKeys.get(i)), left.get(i)));
+        }
+        for (int j = 0; j < right.size() && !sink.done() && !path.limit().reached(); j++) {
+            var r = right.get(j);
+            var element = path.element(plan.rightKeys.get(j));
+            int i = plan.from[j];
+            if (i < 0) {
+                sink.accept(Difference.rightOnly(element, r));
+                continue;
+            }
+            if (plan.moved[j]) {
+                sink.accept(Difference.moved(element, left.get(i), r, i, j));
+            }
+            elementDiff.differences(element, left.get(i), r, sink);
+        }
+    }
+
+    private class Plan {
+        private final List<K> leftKeys;
+        private final List<K> rightKeys;
+        // from[j]: left index of the element at right index j, or -1 if it is right-only
+        private final int[] from;
+        private final boolean[] moved;
+        private final List<Integer> leftOnly = new ArrayList<>();
+
+        Plan(List<V> left, List<V> right) {
+            leftKeys = keys(left);
+            rightKeys = keys(right);
+            var leftIndex = index(leftKeys);
+            var inRight = new boolean[left.size()];
+            from = new int[right.size()];
+            for (int j = 0; j < right.size(); j++) {
+                var i = leftIndex.get(rightKeys.get(j));
+                from[j] = i == null ? -1 : i;
+                if (i != null) {
+                    inRight[i] = true;
+                }
+            }
+            // only to reject duplicate keys on the right as well
+            index(rightKeys);
+            for (int i = 0; i < left.size(); i++) {
+                if (!inRight[i]) {
+                    leftOnly.add(i);
+                }
+            }
+            moved = outsideLongestIncreasing(from);
+        }
+
+        private List<K> keys(List<V> values) {
+            var keys = new ArrayList<K>(values.size());
+            for (var v : values) {
+                keys.add(keyMap.apply(v));
+            }
+            return keys;
+        }
+
+        private HashMap<K, Integer> index(List<K> keys) {
+            var index = new HashMap<K, Integer>(keys.size() * 4 / 3 + 1);
+            for (int i = 0; i < keys.size(); i++) {
+                if (index.put(keys.get(i), i) != null) {
+                    throw new IllegalStateException("Duplicate key " + keys.get(i));
+                }
+            }
+            return index;
+        }
+    }
+
+    // Marks the non-negative values of sequence that are not on a longest strictly increasing subsequence of them.
+    // Patience sorting: tails[k] is the position of the smallest value ending an increasing run of length k + 1.
+    private static boolean[] outsideLongestIncreasing(int[] sequence) {
+        var tails = new int[sequence.length];
+        var previous = new int[sequence.length];
+        int length = 0;
+        for (int p = 0; p < sequence.length; p++) {
+            int value = sequence[p];
+            if (value < 0) {
+                continue;
+            }
+            int lo = 0;
+            int hi = length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sequence[tails[mid]] < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            previous[p] = lo > 0 ? tails[lo - 1] : -1;
+            tails[lo] = p;
+            if (lo == length) {
+                length++;
+            }
+        }
+
+        var outside = new boolean[sequence.length];
+        for (int p = 0; p < sequence.length; p++) {
+            outside[p] = sequence[p] >= 0;
+        }
+        for (int p = length > 0 ? tails[length - 1] : -1; p >= 0; p = previous[p]) {
+            outside[p] = false;
+        }
+        return outside;
+    }
+}
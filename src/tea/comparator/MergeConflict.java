@@ -0,0 +1,64 @@
+package tea.comparator;
+
+import com.google.protobuf.MessageOrBuilder;
+import com.google.protobuf.TextFormat;
+
+// A change that a three-way merge could not apply on its own, see ThreeWayMerge.
+public class MergeConflict {
+    public enum Kind {
+        // both sides changed the field at path to different values; the left value was kept
+        BOTH_CHANGED,
+        // the left side deleted the element at path that the right side changed; the right element was kept
+        LEFT_DELETED,
+        // the right side deleted the element at path that the left side changed; the left element was kept
+        RIGHT_DELETED
+    }
+
+    private final Kind kind;
+    private final Path path;
+    private final Object base;
+    private final Object left;
+    private final Object right;
+
+    MergeConflict(Kind kind, Path path, Object base, Object left, Object right) {
+        this.kind = kind;
+        this.path = path;
+        this.base = base;
+        this.left = left;
+        this.right = right;
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public Object base() {
+        return base;
+    }
+
+    // The left value, or null for LEFT_DELETED.
+    public Object left() {
+        return left;
+    }
+
+    // The right value, or null for RIGHT_DELETED.
+    public Object right() {
+        return right;
+    }
+
+    @Override
+    public String toString() {
+        return path + ": " + kind
+                + "\n\tbase:  " + text(base)
+                + "\n\tleft:  " + text(left)
+                + "\n\tright: " + text(right);
+    }
+
+    private static String text(Object value) {
+        return value instanceof MessageOrBuilder ? TextFormat.shortDebugString((MessageOrBuilder) value) : String.valueOf(value);
+    }
+}
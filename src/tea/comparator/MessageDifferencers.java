@@ -0,0 +1,423 @@
+package tea.comparator;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.FieldMask;
+import com.google.protobuf.Message;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static tea.comparator.RecursiveDifferencer.*;
+
+// Builds differencers for protobuf messages from their descriptors, so that every field in scope is compared.
+public class MessageDifferencers {
+
+    public static <M extends Message> Differencer<M, M> forType(M prototype) {
+        return builder(prototype).build();
+    }
+
+    public static Builder builder(Message prototype) {
+        return new Builder(prototype);
+    }
+
+    public static class Builder {
+        private final Message prototype;
+        private final Map<FieldDescriptor, FieldDescriptor> keys = new HashMap<>();
+        private final Map<FieldDescriptor, FieldDescriptor> tieBreaks = new HashMap<>();
+        private final Map<FieldDescriptor, Differencer<?, ?>> overrides = new HashMap<>();
+        private final Set<FieldDescriptor> editScripts = new HashSet<>();
+        private final Set<FieldDescriptor> unordered = new HashSet<>();
+        private final Set<FieldDescriptor> moves = new HashSet<>();
+        private final Map<List<Object>, Differencer<Object, Object>> built = new HashMap<>();
+        private int parallelThreshold = Integer.MAX_VALUE;
+        private boolean prune = true;
+        private DiffMetrics metrics;
+        private Scope scope = Scope.ALL;
+
+        private Builder(Message prototype) {
+            this.prototype = prototype;
+        }
+
+        // Diffs the repeated message field by the value of keyField instead of by position.
+        public Builder keyBy(FieldDescriptor repeatedField, String keyField) {
+            if (!repeatedField.isRepeated() || repeatedField.getJavaType() != FieldDescriptor.JavaType.MESSAGE) {
+                throw new IllegalArgumentException(repeatedField.getFullName() + " is not a repeated message field");
+            }
+            var key = repeatedField.getMessageType().findFieldByName(keyField);
+            if (key == null || key.isRepeated() || key.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+                throw new IllegalArgumentException(keyField + " is not a scalar field of " + repeatedField.getMessageType().getFullName());
+            }
+            keys.put(repeatedField, key);
+            return this;
+        }
+
+        // Like keyBy, but keeps the order of the elements and reports those that moved, see RecursiveDifferencer.diffListElementsByKeyWithMoves.
+        public Builder keyByDetectingMoves(FieldDescriptor repeatedField, String keyField) {
+            keyBy(repeatedField, keyField);
+            moves.add(repeatedField);
+            return this;
+        }
+
+        // Like keyBy, but tolerates duplicate keys: elements sharing a key are paired in the order of tieBreakField.
+        public Builder keyByAllowingDuplicates(FieldDescriptor repeatedField, String keyField, String tieBreakField) {
+            keyBy(repeatedField, keyField);
+            var tieBreak = repeatedField.getMessageType().findFieldByName(tieBreakField);
+            if (tieBreak == null || tieBreak.isRepeated() || tieBreak.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+                throw new IllegalArgumentException(tieBreakField + " is not a scalar field of " + repeatedField.getMessageType().getFullName());
+            }
+            tieBreaks.put(repeatedField, tieBreak);
+            return this;
+        }
+
+        // Diffs the repeated message field as an ordered list by edit script, see RecursiveDifferencer.diffListElementsByEditScript.
+        // Under a narrowed scope, elements are matched by the fields in scope only.
+        public Builder editScript(FieldDescriptor repeatedField) {
+            if (!repeatedField.isRepeated() || repeatedField.getJavaType() != FieldDescriptor.JavaType.MESSAGE) {
+                throw new IllegalArgumentException(repeatedField.getFullName() + " is not a repeated message field");
+            }
+            editScripts.add(repeatedField);
+            return this;
+        }
+
+        // Diffs the repeated field as a multiset, see RecursiveDifferencer.diffListElementsAsSet. A scope must select
+        // the whole field or nothing of it.
+        public Builder unordered(FieldDescriptor repeatedField) {
+            if (!repeatedField.isRepeated() || repeatedField.isMapField()) {
+                throw new IllegalArgumentException(repeatedField.getFullName() + " is not a repeated field");
+            }
+            unordered.add(repeatedField);
+            return this;
+        }
+
+        // Replaces the generated differencer of a field; it receives the field's value as returned by the getter.
+        public Builder override(FieldDescriptor field, Differencer<?, ?> differencer) {
+            overrides.put(field, differencer);
+            return this;
+        }
+
+        boolean overridden(FieldDescriptor field) {
+            return overrides.containsKey(field);
+        }
+
+        // Keyed fields with more elements than this are diffed in parallel.
+        public Builder parallelThreshold(int threshold) {
+            this.parallelThreshold = threshold;
+            return this;
+        }
+
+        // Whether provably equal sub-messages are skipped, see RecursiveDifferencer.pruneEqual.
+        public Builder pruneEqual(boolean pruneEqual) {
+            this.prune = pruneEqual;
+            return this;
+        }
+
+        // Compares only the fields on the mask's paths, e.g. "people.email" for an AddressBook; the others are never read.
+        // Keys of keyed fields are still read to pair elements. An empty mask compares every field.
+        public Builder scope(FieldMask mask) {
+            return scope(mask.getPathsList());
+        }
+
+        public Builder scope(List<String> paths) {
+            this.scope = Scope.of(prototype.getDescriptorForType(), paths);
+            return this;
+        }
+
+        // Records every message and field differencer in metrics, see DiffMetrics; null records nothing.
+        public Builder instrument(DiffMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <M extends Message> Differencer<M, M> build() {
+            built.clear();
+            return (Differencer<M, M>) (Differencer<?, ?>) messageDifferencer(prototype, scope);
+        }
+
+        private Differencer<Object, Object> messageDifferencer(Message prototype, Scope scope) {
+            var type = prototype.getDescriptorForType();
+            var key = List.<Object>of(type, scope);
+            var existing = built.get(key);
+            if (existing != null) {
+                return existing;
+            }
+
+            // recursive message types refer back to the differencer being built
+            var forward = new Forward();
+            built.put(key, forward);
+
+            var fields = scope.fields(type);
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Differencer<Object, Object>[] fieldDifferencers = new Differencer[fields.size()];
+            for (int i = 0; i < fields.size(); i++) {
+                fieldDifferencers[i] = fieldDifferencer(prototype, fields.get(i), scope.field(fields.get(i)), this::messageDifferencer);
+            }
+            var differencer = compose(fieldDifferencers);
+            forward.target = instrumented(prune(scope) ? RecursiveDifferencer.pruneEqual(differencer) : differencer);
+            built.put(key, forward.target);
+            return forward.target;
+        }
+
+        // Same differencer as build(), with the boolean mode compiled into one MethodHandle chain per message type.
+        // Instrumented differencers are built instead, since the compiled chains would bypass the per-field wrappers.
+        public <M extends Message> Differencer<M, M> compile() {
+            if (metrics != null) {
+                return build();
+            }
+            return new DifferencerCompiler(this).compile(prototype, scope);
+        }
+
+        // Pruning compares whole messages, which would read the fields out of scope.
+        boolean prune(Scope scope) {
+            return prune && scope == Scope.ALL;
+        }
+
+        // scope is the field's own scope, see Scope.field.
+        @SuppressWarnings("unchecked")
+        Differencer<Object, Object> fieldDifferencer(Message prototype, FieldDescriptor field, Scope scope,
+                                                     BiFunction<Message, Scope, Differencer<Object, Object>> messages) {
+            var getter = accessor(prototype, field);
+            var override = (Differencer<Object, Object>) overrides.get(field);
+            if (override != null) {
+                return diffChild(getter, field.getName(), instrumented(override));
+            }
+            if (unordered.contains(field)) {
+                // elements are matched by equals() and hashCode(), which read every field of an element
+                if (scope != Scope.ALL) {
+                    throw new IllegalArgumentException(field.getFullName() + " is unordered, so the field mask must select the whole field, not some of its sub-fields");
+                }
+                return diffChild(getter, field.getName(), instrumented((Differencer<Object, Object>) (Differencer<?, ?>) diffListElementsAsSet()));
+            }
+
+            if (field.isMapField()) {
+                return mapFieldDifferencer(prototype, field, messages);
+            }
+
+            if (field.getJavaType() != FieldDescriptor.JavaType.MESSAGE) {
+                if (field.isRepeated()) {
+                    return diffChild(getter, field.getName(), instrumented((Differencer<Object, Object>) (Differencer<?, ?>) diffListElements(diffWithEquals())));
+                }
+                return metrics == null ? diffChildWithEquals(getter, field.getName()) : diffChild(getter, field.getName(), instrumented(diffWithEquals()));
+            }
+
+            var elementPrototype = fieldPrototype(prototype, field);
+            var elementDiff = messages.apply(elementPrototype, scope);
+            if (!field.isRepeated()) {
+                return diffChild(getter, field.getName(), elementDiff);
+            }
+
+            var key = keys.get(field);
+            Differencer<List<Object>, List<Object>> listDiff;
+            var tieBreak = tieBreaks.get(field);
+            if (key != null && moves.contains(field)) {
+                listDiff = diffListElementsByKeyWithMoves(elementDiff, accessor(elementPrototype, key));
+            } else if (key != null && tieBreak != null) {
+                listDiff = diffListElementsAsMultimap(elementDiff, accessor(elementPrototype, key), keyOrder(key),
+                        Comparator.comparing(accessor(elementPrototype, tieBreak), keyOrder(tieBreak)), parallelThreshold);
+            } else if (key != null) {
+                listDiff = diffListElementsSortedParallel(elementDiff, accessor(elementPrototype, key), keyOrder(key), parallelThreshold);
+            } else if (editScripts.contains(field) && scope == Scope.ALL) {
+                listDiff = diffListElementsByEditScript(elementDiff);
+            } else if (editScripts.contains(field)) {
+                // equals() would read the fields out of scope, so elements are matched by the scoped element diff
+                listDiff = diffListElementsByEditScript(elementDiff, (l, r) -> !elementDiff.anyDifference(l, r));
+            } else {
+                listDiff = diffListElements(elementDiff);
+            }
+            return diffChild(getter, field.getName(), instrumented((Differencer<Object, Object>) (Differencer<?, ?>) listDiff));
+        }
+
+        // A map field reads as a list of key/value entries in no particular order, so its values are diffed by key,
+        // with the key as the path segment. Field masks cannot select paths below a map field, so its scope is ALL.
+        @SuppressWarnings("unchecked")
+        private Differencer<Object, Object> mapFieldDifferencer(Message prototype, FieldDescriptor field,
+                                                                BiFunction<Message, Scope, Differencer<Object, Object>> messages) {
+            var getter = accessor(prototype, field);
+            var entryPrototype = fieldPrototype(prototype, field);
+            var keyField = field.getMessageType().findFieldByName("key");
+            var valueField = field.getMessageType().findFieldByName("value");
+            var key = accessor(entryPrototype, keyField);
+            var value = accessor(entryPrototype, valueField);
+            var valueDiff = valueField.getJavaType() == FieldDescriptor.JavaType.MESSAGE
+                    ? messages.apply(fieldPrototype(entryPrototype, valueField), Scope.ALL)
+                    : RecursiveDifferencer.<Object, Object>diffWithEquals();
+            Function<Object, Object> byKey = m -> {
+                var entries = (List<Object>) getter.apply(m);
+                var map = new LinkedHashMap<Object, Object>(entries.size() * 2);
+                for (var entry : entries) {
+                    map.put(key.apply(entry), value.apply(entry));
+                }
+                return map;
+            };
+            return diffChild(byKey, field.getName(), instrumented((Differencer<Object, Object>) (Differencer<?, ?>) diffMapValues(valueDiff)));
+        }
+
+        private <L, R> Differencer<L, R> instrumented(Differencer<L, R> differencer) {
+            return metrics == null ? differencer : metrics.instrument(differencer);
+        }
+    }
+
+    // The fields of a message type that a FieldMask selects. A selected field maps to the scope of its own fields:
+    // ALL when the whole field is selected, or a narrower scope when only paths below it are.
+    static class Scope {
+        static final Scope ALL = new Scope(null);
+
+        private final Map<String, Scope> fields;
+
+        private Scope(Map<String, Scope> fields) {
+            this.fields = fields;
+        }
+
+        static Scope of(Descriptor type, List<String> paths) {
+            if (paths.isEmpty()) {
+                return ALL;
+            }
+            var root = new Scope(new HashMap<>());
+            for (var path : paths) {
+                root.add(type, path, path.split("\\.", -1), 0);
+            }
+            return root;
+        }
+
+        private void add(Descriptor type, String path, String[] names, int i) {
+            var field = type.findFieldByName(names[i]);
+            if (field == null) {
+                throw new IllegalArgumentException("Field mask path " + path + ": " + type.getFullName() + " has no field " + names[i]);
+            }
+            if (i == names.length - 1) {
+                fields.put(names[i], ALL);
+                return;
+            }
+            if (field.getJavaType() != FieldDescriptor.JavaType.MESSAGE || field.isMapField()) {
+                throw new IllegalArgumentException("Field mask path " + path + ": " + field.getFullName() + " is not a message field");
+            }
+            var child = fields.computeIfAbsent(names[i], name -> new Scope(new HashMap<>()));
+            if (child != ALL) {
+                child.add(field.getMessageType(), path, names, i + 1);
+            }
+        }
+
+        // The selected fields of type, in declaration order.
+        List<FieldDescriptor> fields(Descriptor type) {
+            var all = type.getFields();
+            if (fields == null) {
+                return all;
+            }
+            var selected = new ArrayList<FieldDescriptor>(fields.size());
+            for (var field : all) {
+                if (fields.containsKey(field.getName())) {
+                    selected.add(field);
+                }
+            }
+            return selected;
+        }
+
+        // The scope of a selected field.
+        Scope field(FieldDescriptor field) {
+            return fields == null ? ALL : fields.get(field.getName());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static final Comparator<Object> KEY_ORDER = (a, b) -> ((Comparable<Object>) a).compareTo(b);
+
+    // ByteString is not Comparable in this protobuf version; the other scalar values are.
+    @SuppressWarnings("unchecked")
+    private static Comparator<Object> keyOrder(FieldDescriptor key) {
+        if (key.getJavaType() == FieldDescriptor.JavaType.BYTE_STRING) {
+            return (Comparator<Object>) (Comparator<?>) ByteString.unsignedLexicographicalComparator();
+        }
+        return KEY_ORDER;
+    }
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    // Resolves the generated getter once, so comparisons do not go through reflective getField().
+    static Function<Object, Object> accessor(Message prototype, FieldDescriptor field) {
+        var getter = getter(prototype.getClass(), field);
+        if (getter == null) {
+            return m -> ((Message) m).getField(field);
+        }
+        return m -> {
+            try {
+                return getter.invokeExact(m);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        };
+    }
+
+    static MethodHandle getter(Class<?> messageClass, FieldDescriptor field) {
+        var getter = generatedGetter(messageClass, field);
+        return getter == null ? null : getter.asType(GETTER_TYPE);
+    }
+
+    // The generated getter with its declared types, e.g. (Person)int for Person.getId, or null if there is none.
+    static MethodHandle generatedGetter(Class<?> messageClass, FieldDescriptor field) {
+        if (field.isMapField()) {
+            return null;
+        }
+        var name = "get" + camelCase(field.getName()) + (field.isRepeated() ? "List" : "");
+        try {
+            return MethodHandles.publicLookup().unreflect(messageClass.getMethod(name));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    static Message fieldPrototype(Message prototype, FieldDescriptor field) {
+        return prototype.newBuilderForType().newBuilderForField(field).getDefaultInstanceForType();
+    }
+
+    private static String camelCase(String fieldName) {
+        var out = new StringBuilder(fieldName.length());
+        boolean upper = true;
+        for (char c : fieldName.toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else if (upper) {
+                out.append(Character.toUpperCase(c));
+                upper = Character.isDigit(c);
+            } else {
+                out.append(c);
+                upper = Character.isDigit(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static class Forward implements Differencer<Object, Object> {
+        private Differencer<Object, Object> target;
+
+        @Override
+        public Stream<Difference> differences(Path path, Object left, Object right) {
+            return target.differences(path, left, right);
+        }
+
+        @Override
+        public boolean anyDifference(Object left, Object right) {
+            return target.anyDifference(left, right);
+        }
+
+        @Override
+        public void differences(Path path, Object left, Object right, DifferenceSink sink) {
+            target.differences(path, left, right, sink);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package tea.comparator;
+
+// The path segment of a duplicate key, e.g. "bono[1]" for the second person named bono.
+public class Occurrence {
+    private final Object key;
+    private final int index;
+
+    Occurrence(Object key, int index) {
+        this.key = key;
+        this.index = index;
+    }
+
+    public Object key() {
+        return key;
+    }
+
+    public int index() {
+        return index;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof Occurrence)) {
+            return false;
+        }
+        var occurrence = (Occurrence) other;
+        return index == occurrence.index && key.equals(occurrence.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * key.hashCode() + index;
+    }
+
+    @Override
+    public String toString() {
+        return key + "[" + index + "]";
+    }
+}
@@ -0,0 +1,193 @@
+package tea.comparator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Splits a sorted merge into key ranges that are diffed as fork/join tasks. The differences of the ranges are handed
+// out in key order as the ranges complete, and only WINDOW ranges are diffed ahead of the consumer, so a consumer that
+// stops early (findFirst, a sink that is done) stops the diff, and at most WINDOW ranges of differences are held.
+// Each range also counts its differences as they are produced and stops once it alone has more than the path's
+// DiffLimit still admits, since the consumer cannot take the rest.
+class ParallelSortedMerge<K, V> {
+    private static final int WINDOW = Math.max(2, 2 * ForkJoinPool.commonPool().getParallelism());
+
+    private final Function<V, K> keyMap;
+    private final Comparator<? super K> order;
+    private final Comparator<? super V> sortOrder;
+    private final boolean allowDuplicates;
+    private final SortedMerge<K, V, V> merge;
+    private final int threshold;
+
+    // A null tieBreak requires unique keys; otherwise elements sharing a key are paired in tieBreak order.
+    ParallelSortedMerge(Function<V, K> keyMap, Comparator<? super K> order, Comparator<? super V> tieBreak, Differencer<V, V> elementDiff, int threshold) {
+        this.keyMap = keyMap;
+        this.order = order;
+        this.allowDuplicates = tieBreak != null;
+        this.sortOrder = allowDuplicates
+                ? Comparator.<V, K>comparing(keyMap, order).thenComparing(tieBreak)
+                : Comparator.comparing(keyMap, order);
+        this.merge = new SortedMerge<>(keyMap, keyMap, order, elementDiff, allowDuplicates);
+        this.threshold = threshold;
+    }
+
+    Stream<Difference> differences(Path path, List<V> left, List<V> right) {
+        var ranges = new Ranges(path, sortedByKey(left), sortedByKey(right));
+        return StreamSupport.stream(ranges, false).onClose(ranges::cancel);
+    }
+
+    void differences(Path path, List<V> left, List<V> right, DifferenceSink sink) {
+        var ranges = new Ranges(path, sortedByKey(left), sortedByKey(right));
+        try {
+            while (!sink.done() && ranges.tryAdvance(sink::accept)) {
+                // pushed by tryAdvance
+            }
+        } finally {
+            ranges.cancel();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<V> sortedByKey(List<V> values) {
+        if (SortedMerge.isSorted(values, Function.identity(), sortOrder, !allowDuplicates)) {
+            return values;
+        }
+        var sorted = (V[]) values.toArray();
+        Arrays.parallelSort(sorted, sortOrder);
+        return Arrays.asList(sorted);
+    }
+
+    private class Ranges implements Spliterator<Difference> {
+        private final Path path;
+        private final List<V> left;
+        private final List<V> right;
+        // leftFrom, leftTo, rightFrom, rightTo of each range, in key order
+        private final List<int[]> bounds = new ArrayList<>();
+        private final ArrayDeque<ForkJoinTask<List<Difference>>> running = new ArrayDeque<>();
+        private int submitted;
+        private Iterator<Difference> current = Collections.emptyIterator();
+        private volatile boolean cancelled;
+
+        Ranges(Path path, List<V> left, List<V> right) {
+            this.path = path;
+            this.left = left;
+            this.right = right;
+            split(0, left.size(), 0, right.size());
+        }
+
+        // Halves the left side and binary-searches its middle key on the right.
+        private void split(int leftFrom, int leftTo, int rightFrom, int rightTo) {
+            if ((leftTo - leftFrom) + (rightTo - rightFrom) <= threshold || leftTo - leftFrom < 2) {
+                bounds.add(new int[]{leftFrom, leftTo, rightFrom, rightTo});
+                return;
+            }
+
+            int mid = (leftFrom + leftTo) >>> 1;
+            var splitKey = keyMap.apply(left.get(mid));
+            if (order.compare(keyMap.apply(left.get(mid - 1)), splitKey) == 0) {
+                if (!allowDuplicates) {
+                    throw new IllegalStateException("Duplicate key " + splitKey);
+                }
+                // never split a group of equal keys, so occurrence indices stay the same as in one pass
+                mid = lowerBound(left, leftFrom, leftTo, splitKey);
+                if (mid == leftFrom) {
+                    bounds.add(new int[]{leftFrom, leftTo, rightFrom, rightTo});
+                    return;
+                }
+            }
+            int rightSplit = lowerBound(right, rightFrom, rightTo, splitKey);
+            split(leftFrom, mid, rightFrom, rightSplit);
+            split(mid, leftTo, rightSplit, rightTo);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Difference> action) {
+            while (!current.hasNext()) {
+                submit();
+                var next = running.poll();
+                if (next == null) {
+                    return false;
+                }
+                current = next.join().iterator();
+            }
+            action.accept(current.next());
+            return true;
+        }
+
+        private void submit() {
+            while (running.size() < WINDOW && submitted < bounds.size() && !cancelled && !path.limit().reached()) {
+                var range = bounds.get(submitted++);
+                running.add(ForkJoinPool.commonPool().submit(() -> diff(range)));
+            }
+        }
+
+        private List<Difference> diff(int[] range) {
+            // read when the range starts: the limit only shrinks, so this is at least what is left when it is consumed
+            long budget = path.limit().remaining();
+            var differences = new ArrayList<Difference>();
+            merge.differences(path, left.subList(range[0], range[1]).iterator(), right.subList(range[2], range[3]).iterator(),
+                    new DifferenceSink() {
+                        @Override
+                        public void accept(Difference difference) {
+                            differences.add(difference);
+                        }
+
+                        @Override
+                        public boolean done() {
+                            return cancelled || differences.size() > budget;
+                        }
+                    });
+            return differences;
+        }
+
+        // Stops the ranges being diffed; their differences are dropped.
+        void cancel() {
+            cancelled = true;
+            for (var task : running) {
+                task.cancel(false);
+            }
+            running.clear();
+        }
+
+        @Override
+        public Spliterator<Difference> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED;
+        }
+    }
+
+    // Index of the first element in [from, to) whose key is not less than key.
+    private int lowerBound(List<V> values, int from, int to, K key) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (order.compare(keyMap.apply(values.get(mid)), key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -1,22 +1,78 @@
 package tea.comparator;
 
+// A path is a linked list of segments, rendered to a String only when asked for.
 public class Path {
-    private final String path;
+    private static final Path ROOT = new Path(null, null, false, DiffLimit.NONE);
 
-    private Path(String path) {
-        this.path = path;
+    private final Path parent;
+    private final Object segment;
+    private final boolean element;
+    private final DiffLimit limit;
+
+    private Path(Path parent, Object segment, boolean element, DiffLimit limit) {
+        this.parent = parent;
+        this.segment = segment;
+        this.element = element;
+        this.limit = limit;
     }
 
     @Override
     public String toString() {
-        return path;
+        if (parent == null) {
+            return "";
+        }
+        return render(new StringBuilder()).toString();
     }
 
     public static Path root() {
-        return new Path("");
+        return ROOT;
+    }
+
+    // A root whose differences are bounded by limit, see DiffLimit.
+    public static Path root(DiffLimit limit) {
+        return new Path(null, null, false, limit);
+    }
+
+    public Path sub(String fieldName) {
+        return new Path(this, fieldName, false, limit);
+    }
+
+    // Keys and indices are kept as-is; toString() is deferred until the path is rendered.
+    Path element(Object key) {
+        return new Path(this, key, true, limit);
+    }
+
+    // The enclosing path, or null for a root.
+    public Path parent() {
+        return parent;
+    }
+
+    // The field name, or the index, key or Occurrence of an element; null for a root.
+    public Object segment() {
+        return segment;
+    }
+
+    // Whether the segment is an element of a list or map rather than a field name.
+    public boolean isElement() {
+        return element;
+    }
+
+    // The path with every element segment written as *, e.g. /people/*/phones.
+    public String pattern() {
+        if (parent == null) {
+            return "";
+        }
+        return parent.pattern() + '/' + (element ? "*" : segment);
+    }
+
+    DiffLimit limit() {
+        return limit;
     }
 
-    Path sub(String suffix) {
-        return new Path(path + "/" + suffix);
+    private StringBuilder render(StringBuilder out) {
+        if (parent != null) {
+            parent.render(out).append('/').append(segment);
+        }
+        return out;
     }
 }
@@ -0,0 +1,188 @@
+package tea.comparator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Joins two unsorted sequences by key, reading them alternately and holding only the not yet matched elements.
+// Elements sharing a key are paired with a pending counterpart that ties with them in tieBreak order as soon as both
+// are read. The rest of such a group waits for the end, where it is paired in tieBreak order, as a sorted multimap diff
+// pairs it, with the second and later pairs under an Occurrence segment; the excess of either side is one-sided.
+// A pending key holds its element directly, and only keys with several pending elements hold a Group.
+class PendingJoin<K, V> {
+    private final Function<V, K> keyMap;
+    private final Comparator<? super V> tieBreak;
+    private final Differencer<V, V> elementDiff;
+    private final int maxPending;
+
+    PendingJoin(Function<V, K> keyMap, Comparator<? super V> tieBreak, Differencer<V, V> elementDiff, int maxPending) {
+        this.keyMap = keyMap;
+        this.tieBreak = tieBreak;
+        this.elementDiff = elementDiff;
+        this.maxPending = maxPending;
+    }
+
+    Stream<Difference> differences(Path path, Iterator<V> left, Iterator<V> right) {
+        var leftPending = new Pending();
+        var rightPending = new Pending();
+        var steps = new Spliterators.AbstractSpliterator<Stream<Difference>>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            private boolean fromLeft = true;
+            private Iterator<Map.Entry<K, Object>> leftOnly;
+            private Iterator<Map.Entry<K, Object>> rightOnly;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Stream<Difference>> action) {
+                if (path.limit().reached()) {
+                    return false;
+                }
+                while (left.hasNext() || right.hasNext()) {
+                    boolean useLeft = fromLeft ? left.hasNext() : !right.hasNext();
+                    fromLeft = !fromLeft;
+                    var matched = useLeft
+                            ? match(path, left.next(), rightPending, leftPending, false)
+                            : match(path, right.next(), leftPending, rightPending, true);
+                    if (matched != null) {
+                        action.accept(matched);
+                        return true;
+                    }
+                }
+
+                if (leftOnly == null) {
+                    leftOnly = leftPending.values.entrySet().iterator();
+                }
+                // a left key also takes what is left of its group on the right
+                if (leftOnly.hasNext()) {
+                    var entry = leftOnly.next();
+                    action.accept(leftovers(path, entry.getKey(), entry.getValue(), rightPending.values.remove(entry.getKey())));
+                    return true;
+                }
+                if (rightOnly == null) {
+                    rightOnly = rightPending.values.entrySet().iterator();
+                }
+                if (rightOnly.hasNext()) {
+                    var entry = rightOnly.next();
+                    action.accept(leftovers(path, entry.getKey(), null, entry.getValue()));
+                    return true;
+                }
+                return false;
+            }
+        };
+        return StreamSupport.stream(steps, false).flatMap(Function.identity());
+    }
+
+    // Compares value with a tying counterpart if one was already read, otherwise parks it; returns null when parked.
+    private Stream<Difference> match(Path path, V value, Pending otherPending, Pending ownPending, boolean valueIsRight) {
+        var key = keyMap.apply(value);
+        var other = otherPending.take(key, value);
+        if (other != null) {
+            return valueIsRight
+                    ? elementDiff.differences(path.element(key), other, value)
+                    : elementDiff.differences(path.element(key), value, other);
+        }
+        ownPending.add(key, value);
+        if (otherPending.size + ownPending.size > maxPending) {
+            throw new IllegalStateException("More than " + maxPending + " unmatched elements; sort the inputs by key or raise the limit");
+        }
+        return null;
+    }
+
+    // Pairs the unmatched elements of a key in tieBreak order; either side may be null.
+    private Stream<Difference> leftovers(Path path, K key, Object left, Object right) {
+        var lefts = sorted(left);
+        var rights = sorted(right);
+        var differences = new ArrayList<Stream<Difference>>(Math.max(lefts.size(), rights.size()));
+        for (int i = 0; i < Math.max(lefts.size(), rights.size()); i++) {
+            var element = path.element(i == 0 ? key : new Occurrence(key, i));
+            if (i >= rights.size()) {
+                differences.add(Stream.of(Difference.leftOnly(element, lefts.get(i))));
+            } else if (i >= lefts.size()) {
+                differences.add(Stream.of(Difference.rightOnly(element, rights.get(i))));
+            } else {
+                differences.add(elementDiff.differences(element, lefts.get(i), rights.get(i)));
+            }
+        }
+        return differences.stream().flatMap(Function.identity());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<V> sorted(Object pending) {
+        if (pending == null) {
+            return List.of();
+        }
+        if (!(pending instanceof Group)) {
+            return List.of((V) pending);
+        }
+        var values = new ArrayList<>(((Group<V>) pending).values);
+        values.sort(tieBreak);
+        return values;
+    }
+
+    // The pending elements of one side by key, in the order their keys were first parked.
+    private class Pending {
+        // a V, or a Group of the elements sharing the key
+        private final Map<K, Object> values = new LinkedHashMap<>();
+        private int size;
+
+        void add(K key, V value) {
+            size++;
+            var existing = values.putIfAbsent(key, value);
+            if (existing == null) {
+                return;
+            }
+            if (existing instanceof Group) {
+                @SuppressWarnings("unchecked")
+                var group = (Group<V>) existing;
+                group.values.add(value);
+                return;
+            }
+            var group = new Group<V>();
+            @SuppressWarnings("unchecked")
+            var first = (V) existing;
+            group.values.add(first);
+            group.values.add(value);
+            values.put(key, group);
+        }
+
+        // Removes and returns the first pending element of key that ties with value, or null if there is none.
+        @SuppressWarnings("unchecked")
+        V take(K key, V value) {
+            var existing = values.get(key);
+            if (existing == null) {
+                return null;
+            }
+            if (!(existing instanceof Group)) {
+                if (tieBreak.compare((V) existing, value) != 0) {
+                    return null;
+                }
+                values.remove(key);
+                size--;
+                return (V) existing;
+            }
+            var group = ((Group<V>) existing).values;
+            for (int i = 0; i < group.size(); i++) {
+                if (tieBreak.compare(group.get(i), value) == 0) {
+                    var taken = group.remove(i);
+                    if (group.size() == 1) {
+                        values.put(key, group.get(0));
+                    }
+                    size--;
+                    return taken;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class Group<V> {
+        private final List<V> values = new ArrayList<>(2);
+    }
+}
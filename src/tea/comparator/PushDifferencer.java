@@ -0,0 +1,6 @@
+package tea.comparator;
+
+// A differencer written in push style, see RecursiveDifferencer.push for the adapter to Differencer.
+public interface PushDifferencer<L, R> {
+    void differences(Path path, L left, R right, DifferenceSink sink);
+}
@@ -1,6 +1,12 @@
 package tea.comparator;
 
+import com.google.protobuf.MessageLite;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -15,7 +21,24 @@ public class RecursiveDifferencer {
 
     @SafeVarargs
     public static <L, R> Differencer<L, R> compose(Differencer<L, R> ...differencers) {
-        return (Path p, L left, R right) -> Arrays.stream(differencers).flatMap(d -> d.differences(p, left, right));
+        return differencer(
+                (Path p, L left, R right) -> Arrays.stream(differencers).flatMap(d -> d.differences(p, left, right)),
+                (L left, R right) -> {
+                    for (var d : differencers) {
+                        if (d.anyDifference(left, right)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                },
+                (Path p, L left, R right, DifferenceSink sink) -> {
+                    for (var d : differencers) {
+                        if (sink.done()) {
+                            return;
+                        }
+                        d.differences(p, left, right, sink);
+                    }
+                });
     }
 
     public static <P, C> Differencer<P, P> diffChildWithEquals(Function<P, C> f, String fieldName) {
@@ -31,64 +54,459 @@ public class RecursiveDifferencer {
     }
 
     public static <PL, PR, CL, CR> Differencer<PL, PR> diffChildAsym(Function<PL, CL> fL, Function<PR, CR> fR, String fieldName, Differencer<CL, CR> childDiff) {
-        return (Path path, PL left, PR right) ->
-                testChild(fieldName, childDiff).differences(path, fL.apply(left), fR.apply(right));
+        return differencer(
+                (Path path, PL left, PR right) ->
+                        testChild(fieldName, childDiff).differences(path, fL.apply(left), fR.apply(right)),
+                (PL left, PR right) -> childDiff.anyDifference(fL.apply(left), fR.apply(right)),
+                (Path path, PL left, PR right, DifferenceSink sink) ->
+                        childDiff.differences(path.sub(fieldName), fL.apply(left), fR.apply(right), sink));
     }
 
     public static <L, R> Differencer<List<L>, List<R>> diffListElements(Differencer<L, R> elementDiff) {
-        return (Path path, List<L> left, List<R> right) ->
-                RecursiveDifferencer.<Integer, L, R>diffMapValues(elementDiff).differences(path, listToMap(left), listToMap(right));
+        return differencer(
+                (Path path, List<L> left, List<R> right) -> {
+                    int common = Math.min(left.size(), right.size());
+                    return Stream.concat(
+                            IntStream.range(0, common)
+                                    .takeWhile(i -> !path.limit().reached())
+                                    .mapToObj(i -> elementDiff.differences(path.element(i), left.get(i), right.get(i)))
+                                    .flatMap(Function.identity()),
+                            Stream.concat(
+                                    IntStream.range(common, left.size()).mapToObj(i -> Difference.leftOnly(path.element(i), left.get(i))),
+                                    IntStream.range(common, right.size()).mapToObj(i -> Difference.rightOnly(path.element(i), right.get(i)))));
+                },
+                (List<L> left, List<R> right) -> {
+                    if (left.size() != right.size()) {
+                        return true;
+                    }
+                    for (int i = 0; i < left.size(); i++) {
+                        if (elementDiff.anyDifference(left.get(i), right.get(i))) {
+                            return true;
+                        }
+                    }
+                    return false;
+                },
+                (Path path, List<L> left, List<R> right, DifferenceSink sink) -> {
+                    int common = Math.min(left.size(), right.size());
+                    for (int i = 0; i < common && !sink.done() && !path.limit().reached(); i++) {
+                        elementDiff.differences(path.element(i), left.get(i), right.get(i), sink);
+                    }
+                    for (int i = common; i < left.size() && !sink.done(); i++) {
+                        sink.accept(Difference.leftOnly(path.element(i), left.get(i)));
+                    }
+                    for (int i = common; i < right.size() && !sink.done(); i++) {
+                        sink.accept(Difference.rightOnly(path.element(i), right.get(i)));
+                    }
+                });
+    }
+
+    // Compares the lists as multisets: equal elements are paired through a hash map in O(n), using the memoized
+    // hashCode() of messages, and only the unpaired ones are reported, at their index on their side.
+    public static <V> Differencer<List<V>, List<V>> diffListElementsAsSet() {
+        return differencer(
+                (Path path, List<V> left, List<V> right) -> {
+                    var differences = Stream.<Difference>builder();
+                    diffUnpaired(path, left, right, differences::add);
+                    return differences.build();
+                },
+                (List<V> left, List<V> right) -> {
+                    if (left.size() != right.size()) {
+                        return true;
+                    }
+                    if (left.equals(right)) {
+                        return false;
+                    }
+                    var counts = counts(right);
+                    for (var l : left) {
+                        var count = counts.get(l);
+                        if (count == null || count[0] == 0) {
+                            return true;
+                        }
+                        count[0]--;
+                    }
+                    return false;
+                },
+                RecursiveDifferencer::diffUnpaired);
+    }
+
+    private static <V> void diffUnpaired(Path path, List<V> left, List<V> right, DifferenceSink sink) {
+        if (left.equals(right)) {
+            return;
+        }
+        // count[0]: right occurrences not paired yet; count[1]: pairs made, claimed back by the right side
+        var counts = counts(right);
+        for (int i = 0; i < left.size() && !sink.done(); i++) {
+            var count = counts.get(left.get(i));
+            if (count != null && count[0] > 0) {
+                count[0]--;
+                count[1]++;
+            } else {
+                sink.accept(Difference.leftOnly(path.element(i), left.get(i)));
+            }
+        }
+        for (int i = 0; i < right.size() && !sink.done(); i++) {
+            var count = counts.get(right.get(i));
+            if (count[1] > 0) {
+                count[1]--;
+            } else {
+                sink.accept(Difference.rightOnly(path.element(i), right.get(i)));
+            }
+        }
+    }
+
+    private static <V> Map<V, int[]> counts(List<V> values) {
+        var counts = new HashMap<V, int[]>(values.size() * 4 / 3 + 1);
+        for (var v : values) {
+            counts.computeIfAbsent(v, k -> new int[2])[0]++;
+        }
+        return counts;
+    }
+
+    // Keyed diff that also reports reordering: elements in common are paired by unique key, and those that changed
+    // their relative order are reported as moved with their left and right index, see KeyedMoveDifferencer.
+    public static <K, V> Differencer<List<V>, List<V>> diffListElementsByKeyWithMoves(Differencer<V, V> elementDiff, Function<V, K> keyMap) {
+        return new KeyedMoveDifferencer<>(elementDiff, keyMap);
+    }
+
+    // Ordered list diff by a Myers edit script: an inserted or removed element is reported once instead of shifting
+    // every later element, and elements that only changed position are reported as MOVED.
+    public static <V> Differencer<List<V>, List<V>> diffListElementsByEditScript(Differencer<V, V> elementDiff) {
+        return new EditScriptListDifferencer<>(elementDiff);
+    }
+
+    // Like diffListElementsByEditScript, but elements are matched by equal instead of equals().
+    public static <V> Differencer<List<V>, List<V>> diffListElementsByEditScript(Differencer<V, V> elementDiff, BiPredicate<V, V> equal) {
+        return new EditScriptListDifferencer<>(elementDiff, equal);
     }
 
     public static <K, V> Differencer<List<V>, List<V>> diffListElementsAsMap(Differencer<V, V> elementDiff, Function<V, K> keyMap) {
-        return (Path path, List<V> left, List<V> right) ->
-                RecursiveDifferencer.<K, V, V>diffMapValues(elementDiff).differences(path, listToMap(left, keyMap), listToMap(right, keyMap));
+        return differencer(
+                (Path path, List<V> left, List<V> right) ->
+                        RecursiveDifferencer.<K, V, V>diffMapValues(elementDiff).differences(path, listToMap(left, keyMap), listToMap(right, keyMap)),
+                (List<V> left, List<V> right) -> {
+                    if (left.size() != right.size()) {
+                        return true;
+                    }
+                    var rightByKey = listToMap(right, keyMap);
+                    for (var l : left) {
+                        var r = rightByKey.get(keyMap.apply(l));
+                        if (r == null || elementDiff.anyDifference(l, r)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                });
+    }
+
+    public static <K extends Comparable<? super K>, V> Differencer<List<V>, List<V>> diffListElementsSorted(Differencer<V, V> elementDiff, Function<V, K> keyMap) {
+        return diffListElementsSorted(elementDiff, keyMap, Comparator.naturalOrder());
+    }
+
+    public static <K, V> Differencer<List<V>, List<V>> diffListElementsSorted(Differencer<V, V> elementDiff, Function<V, K> keyMap, Comparator<? super K> order) {
+        var merge = new SortedMerge<K, V, V>(keyMap, keyMap, order, elementDiff);
+        return differencer(
+                (Path path, List<V> left, List<V> right) ->
+                        merge.differences(path, sortedByKey(left, keyMap, order).iterator(), sortedByKey(right, keyMap, order).iterator()),
+                (List<V> left, List<V> right) -> left.size() != right.size()
+                        || merge.anyDifference(sortedByKey(left, keyMap, order).iterator(), sortedByKey(right, keyMap, order).iterator()),
+                (Path path, List<V> left, List<V> right, DifferenceSink sink) ->
+                        merge.differences(path, sortedByKey(left, keyMap, order).iterator(), sortedByKey(right, keyMap, order).iterator(), sink));
+    }
+
+    // Keyed list diff that tolerates duplicate keys: elements sharing a key are paired in tieBreak order.
+    public static <K, V> Differencer<List<V>, List<V>> diffListElementsAsMultimap(Differencer<V, V> elementDiff, Function<V, K> keyMap, Comparator<? super K> order, Comparator<? super V> tieBreak) {
+        return diffListElementsAsMultimap(elementDiff, keyMap, order, tieBreak, Integer.MAX_VALUE);
+    }
+
+    // Like diffListElementsAsMultimap, but lists with more than threshold elements in total are diffed by fork/join tasks.
+    public static <K, V> Differencer<List<V>, List<V>> diffListElementsAsMultimap(Differencer<V, V> elementDiff, Function<V, K> keyMap, Comparator<? super K> order, Comparator<? super V> tieBreak, int threshold) {
+        var sequential = diffListElementsAsMultimapSequential(elementDiff, keyMap, order, tieBreak);
+        var parallel = new ParallelSortedMerge<>(keyMap, order, tieBreak, elementDiff, threshold);
+        return differencer(
+                (Path path, List<V> left, List<V> right) -> left.size() + right.size() <= threshold
+                        ? sequential.differences(path, left, right)
+                        : parallel.differences(path, left, right),
+                sequential::anyDifference,
+                (Path path, List<V> left, List<V> right, DifferenceSink sink) -> {
+                    if (left.size() + right.size() <= threshold) {
+                        sequential.differences(path, left, right, sink);
+                    } else {
+                        parallel.differences(path, left, right, sink);
+                    }
+                });
+    }
+
+    private static <K, V> Differencer<List<V>, List<V>> diffListElementsAsMultimapSequential(Differencer<V, V> elementDiff, Function<V, K> keyMap, Comparator<? super K> order, Comparator<? super V> tieBreak) {
+        var merge = new SortedMerge<K, V, V>(keyMap, keyMap, order, elementDiff, true);
+        Comparator<V> byKeyThenTieBreak = Comparator.<V, K>comparing(keyMap, order).thenComparing(tieBreak);
+        return differencer(
+                (Path path, List<V> left, List<V> right) ->
+                        merge.differences(path, sorted(left, byKeyThenTieBreak).iterator(), sorted(right, byKeyThenTieBreak).iterator()),
+                (List<V> left, List<V> right) -> left.size() != right.size()
+                        || merge.anyDifference(sorted(left, byKeyThenTieBreak).iterator(), sorted(right, byKeyThenTieBreak).iterator()),
+                (Path path, List<V> left, List<V> right, DifferenceSink sink) ->
+                        merge.differences(path, sorted(left, byKeyThenTieBreak).iterator(), sorted(right, byKeyThenTieBreak).iterator(), sink));
+    }
+
+    public static <K extends Comparable<? super K>, V> Differencer<List<V>, List<V>> diffListElementsSortedParallel(Differencer<V, V> elementDiff, Function<V, K> keyMap, int threshold) {
+        return diffListElementsSortedParallel(elementDiff, keyMap, Comparator.naturalOrder(), threshold);
+    }
+
+    // Like diffListElementsSorted, but lists with more than threshold elements in total are diffed by fork/join tasks.
+    public static <K, V> Differencer<List<V>, List<V>> diffListElementsSortedParallel(Differencer<V, V> elementDiff, Function<V, K> keyMap, Comparator<? super K> order, int threshold) {
+        var sequential = diffListElementsSorted(elementDiff, keyMap, order);
+        var parallel = new ParallelSortedMerge<>(keyMap, order, null, elementDiff, threshold);
+        return differencer(
+                (Path path, List<V> left, List<V> right) -> left.size() + right.size() <= threshold
+                        ? sequential.differences(path, left, right)
+                        : parallel.differences(path, left, right),
+                sequential::anyDifference,
+                (Path path, List<V> left, List<V> right, DifferenceSink sink) -> {
+                    if (left.size() + right.size() <= threshold) {
+                        sequential.differences(path, left, right, sink);
+                    } else {
+                        parallel.differences(path, left, right, sink);
+                    }
+                });
+    }
+
+    // Streams two key-sorted sequences through a merge join, holding one element of each side at a time.
+    public static <K, V> Differencer<Iterator<V>, Iterator<V>> diffSortedElements(Differencer<V, V> elementDiff, Function<V, K> keyMap, Comparator<? super K> order) {
+        var merge = new SortedMerge<K, V, V>(keyMap, keyMap, order, elementDiff);
+        return differencer(merge::differences, merge::anyDifference, merge::differences);
+    }
+
+    // Streams two unsorted sequences, holding at most maxPending elements whose counterpart has not been read yet.
+    // Elements sharing a key are paired in the order they are read.
+    public static <K, V> Differencer<Iterator<V>, Iterator<V>> diffUnsortedElements(Differencer<V, V> elementDiff, Function<V, K> keyMap, int maxPending) {
+        return diffUnsortedElements(elementDiff, keyMap, (l, r) -> 0, maxPending);
+    }
+
+    // Like diffUnsortedElements, but elements sharing a key are paired by tieBreak, as diffListElementsAsMultimap pairs them.
+    public static <K, V> Differencer<Iterator<V>, Iterator<V>> diffUnsortedElements(Differencer<V, V> elementDiff, Function<V, K> keyMap, Comparator<? super V> tieBreak, int maxPending) {
+        var join = new PendingJoin<>(keyMap, tieBreak, elementDiff, maxPending);
+        return join::differences;
+    }
+
+    // Like diffSortedElements, but elements sharing a key are paired in the order they are read.
+    public static <K, V> Differencer<Iterator<V>, Iterator<V>> diffSortedElementsAllowingDuplicates(Differencer<V, V> elementDiff, Function<V, K> keyMap, Comparator<? super K> order) {
+        var merge = new SortedMerge<K, V, V>(keyMap, keyMap, order, elementDiff, true);
+        return differencer(merge::differences, merge::anyDifference, merge::differences);
+    }
+
+    // Like diffSortedElementsAllowingDuplicates, but elements sharing a key must be read in tieBreak order, as
+    // diffListElementsAsMultimap sorts them before pairing; out of order input is rejected.
+    public static <K, V> Differencer<Iterator<V>, Iterator<V>> diffSortedElementsAllowingDuplicates(Differencer<V, V> elementDiff, Function<V, K> keyMap, Comparator<? super K> order, Comparator<? super V> tieBreak) {
+        var merge = new SortedMerge<K, V, V>(keyMap, keyMap, order, elementDiff, true);
+        Comparator<V> sortOrder = Comparator.<V, K>comparing(keyMap, order).thenComparing(tieBreak);
+        return differencer(
+                (Path path, Iterator<V> left, Iterator<V> right) -> merge.differences(path, inOrder(left, keyMap, sortOrder), inOrder(right, keyMap, sortOrder)),
+                (Iterator<V> left, Iterator<V> right) -> merge.anyDifference(inOrder(left, keyMap, sortOrder), inOrder(right, keyMap, sortOrder)),
+                (Path path, Iterator<V> left, Iterator<V> right, DifferenceSink sink) ->
+                        merge.differences(path, inOrder(left, keyMap, sortOrder), inOrder(right, keyMap, sortOrder), sink));
+    }
+
+    // Passes values through, checking that they come in sortOrder.
+    private static <K, V> Iterator<V> inOrder(Iterator<V> values, Function<V, K> keyMap, Comparator<? super V> sortOrder) {
+        return new Iterator<>() {
+            private V previous;
+
+            @Override
+            public boolean hasNext() {
+                return values.hasNext();
+            }
+
+            @Override
+            public V next() {
+                var value = values.next();
+                if (previous != null && sortOrder.compare(previous, value) > 0) {
+                    throw new IllegalStateException("Input is not sorted at key " + keyMap.apply(value));
+                }
+                previous = value;
+                return value;
+            }
+        };
+    }
+
+    // Like diffSortedElementsAllowingDuplicates over lightweight entries that stand in for the values, e.g. records of a
+    // fingerprint index: pairs of entries that are unchanged are skipped, and only the others are loaded and compared.
+    public static <K, E, V> Differencer<Iterator<E>, Iterator<E>> diffSortedEntriesAllowingDuplicates(
+            Differencer<V, V> valueDiff, Function<E, K> keyMap, Comparator<? super K> order, BiPredicate<E, E> unchanged, Function<E, V> load) {
+        Differencer<E, E> loaded = differencer(
+                (Path path, E left, E right) -> valueDiff.differences(path, load.apply(left), load.apply(right)),
+                (E left, E right) -> valueDiff.anyDifference(load.apply(left), load.apply(right)),
+                (Path path, E left, E right, DifferenceSink sink) -> valueDiff.differences(path, load.apply(left), load.apply(right), sink));
+        var merge = new SortedMerge<K, E, E>(keyMap, keyMap, order, pruneIf(unchanged, loaded), true, load, load);
+        return differencer(merge::differences, merge::anyDifference, merge::differences);
     }
 
     public static <K, L, R> Differencer<Map<K, L>, Map<K, R>> diffMapValues(Differencer<L, R> valueDiff) {
-        return (Path path, Map<K, L> left, Map<K, R> right) -> {
-            var commonKeys = left.keySet().stream().filter(right::containsKey).collect(Collectors.toSet());
-            var leftOnlyKeys = left.keySet().stream().filter(Predicate.not(commonKeys::contains));
-            var rightOnlyKeys = right.keySet().stream().filter(Predicate.not(commonKeys::contains));
-            return Stream.concat(
-                    diffInCommon(commonKeys, valueDiff).differences(path, left, right),
-                    Stream.concat(
-                            diffLeftOnly(path, leftOnlyKeys, left::get),
-                            diffRightOnly(path, rightOnlyKeys, right::get)));
+        return differencer(
+                (Path path, Map<K, L> left, Map<K, R> right) -> {
+                    var commonKeys = left.keySet().stream().filter(right::containsKey).collect(Collectors.toSet());
+                    var leftOnlyKeys = left.keySet().stream().filter(Predicate.not(commonKeys::contains));
+                    var rightOnlyKeys = right.keySet().stream().filter(Predicate.not(commonKeys::contains));
+                    return Stream.concat(
+                            diffInCommon(commonKeys, valueDiff).differences(path, left, right),
+                            Stream.concat(
+                                    diffLeftOnly(path, leftOnlyKeys, left::get),
+                                    diffRightOnly(path, rightOnlyKeys, right::get)));
+                },
+                (Map<K, L> left, Map<K, R> right) -> {
+                    if (left.size() != right.size()) {
+                        return true;
+                    }
+                    for (var entry : left.entrySet()) {
+                        var r = right.get(entry.getKey());
+                        if ((r == null && !right.containsKey(entry.getKey())) || valueDiff.anyDifference(entry.getValue(), r)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                });
+    }
+
+    // Skips the subtree when the values are provably equal: the same instance, or equal memoized hash codes and equals().
+    public static <T> Differencer<T, T> pruneEqual(Differencer<T, T> differencer) {
+        return pruneIf(RecursiveDifferencer::provablyEqual, differencer);
+    }
+
+    // Skips the subtree when both messages serialize to the same bytes; getSerializedSize() is memoized and checked first.
+    public static <T extends MessageLite> Differencer<T, T> pruneEqualBytes(Differencer<T, T> differencer) {
+        return pruneIf((T l, T r) -> l == r
+                || (l.getSerializedSize() == r.getSerializedSize() && l.toByteString().equals(r.toByteString())), differencer);
+    }
+
+    // Adapts a push-style differencer; its stream collects the pushed differences first.
+    public static <L, R> Differencer<L, R> push(PushDifferencer<L, R> push) {
+        return differencer(
+                (Path path, L left, R right) -> {
+                    var differences = Stream.<Difference>builder();
+                    push.differences(path, left, right, differences::add);
+                    return differences.build();
+                },
+                (L left, R right) -> {
+                    var first = new FirstDifference();
+                    push.differences(Path.root(), left, right, first);
+                    return first.found;
+                },
+                push);
+    }
+
+    private static <L, R> Differencer<L, R> differencer(Differencer<L, R> differences, BiPredicate<L, R> anyDifference) {
+        return differencer(differences, anyDifference, null);
+    }
+
+    // A null push falls back to pushing the stream of differences.
+    private static <L, R> Differencer<L, R> differencer(Differencer<L, R> differences, BiPredicate<L, R> anyDifference, PushDifferencer<L, R> push) {
+        return new Differencer<>() {
+            @Override
+            public Stream<Difference> differences(Path path, L left, R right) {
+                return differences.differences(path, left, right);
+            }
+
+            @Override
+            public boolean anyDifference(L left, R right) {
+                return anyDifference.test(left, right);
+            }
+
+            @Override
+            public void differences(Path path, L left, R right, DifferenceSink sink) {
+                if (push == null) {
+                    Differencer.super.differences(path, left, right, sink);
+                } else {
+                    push.differences(path, left, right, sink);
+                }
+            }
         };
     }
 
+    private static class FirstDifference implements DifferenceSink {
+        private boolean found;
+
+        @Override
+        public void accept(Difference difference) {
+            found = true;
+        }
+
+        @Override
+        public boolean done() {
+            return found;
+        }
+    }
+
     private static <L, R> Differencer<L, R> testChild(String fieldName, Differencer<L, R> differencer) {
         return (Path path, L left, R right) -> differencer.differences(path.sub(fieldName), left, right);
     }
 
     private static <K, V> Stream<Difference> diffRightOnly(Path path, Stream<K> keys, Function<K, V> right) {
-        return keys.map(k -> Difference.rightOnly(path.sub(k.toString()), right.apply(k)));
+        return keys.map(k -> Difference.rightOnly(path.element(k), right.apply(k)));
     }
 
     private static <K, V> Stream<Difference> diffLeftOnly(Path path, Stream<K> keys, Function<K, V> left) {
-        return keys.map(k -> Difference.leftOnly(path.sub(k.toString()), left.apply(k)));
+        return keys.map(k -> Difference.leftOnly(path.element(k), left.apply(k)));
     }
 
     private static <K, L, R> Differencer<Map<K, L>, Map<K, R>> diffInCommon(Set<K> keys, Differencer<L, R> compareValues) {
         return (Path path, Map<K, L> left, Map<K, R> right) -> keys.stream()
-                .flatMap(k -> compareValues.differences(path.sub(k.toString()), left.get(k), right.get(k)));
+                .takeWhile(k -> !path.limit().reached())
+                .flatMap(k -> compareValues.differences(path.element(k), left.get(k), right.get(k)));
+    }
+
+    private static <T> Differencer<T, T> pruneIf(BiPredicate<T, T> equal, Differencer<T, T> differencer) {
+        return differencer(
+                (p, l, r) -> equal.test(l, r) ? Stream.empty() : differencer.differences(p, l, r),
+                (l, r) -> !equal.test(l, r) && differencer.anyDifference(l, r),
+                (p, l, r, sink) -> {
+                    if (!equal.test(l, r)) {
+                        differencer.differences(p, l, r, sink);
+                    }
+                });
+    }
+
+    static <T> boolean provablyEqual(T left, T right) {
+        return left == right || (left != null && right != null && left.hashCode() == right.hashCode() && left.equals(right));
     }
 
     private static <L, R> Differencer<L, R> testIfEqual(BiPredicate<L, R> equals, Differencer<L, R> differencer) {
-        return (p, l, r) -> equals.test(l, r) ? Stream.empty() : differencer.differences(p, l, r);
+        return differencer(
+                (p, l, r) -> equals.test(l, r) ? Stream.empty() : differencer.differences(p, l, r),
+                (l, r) -> !equals.test(l, r) && differencer.anyDifference(l, r));
     }
 
 
-    private static <L, R> Differencer<L, R> diffWithEquals() {
-        return RecursiveDifferencer.testIfEqual(Object::equals, Difference::unequal);
+    // Reports unequal values as a single difference, without descending into them.
+    public static <L, R> Differencer<L, R> diffWithEquals() {
+        return differencer(
+                RecursiveDifferencer.testIfEqual(Object::equals, Difference::unequal),
+                (l, r) -> !l.equals(r),
+                (p, l, r, sink) -> {
+                    if (!l.equals(r)) {
+                        sink.accept(Difference.unequalValues(p, l, r));
+                    }
+                });
     }
 
     private static <K, V> Map<K,V> listToMap(List<V> list, Function<V, K> keyMap) {
         return list.stream().collect(Collectors.toMap(keyMap, Function.identity()));
     }
 
-    private static <V> Map<Integer, V> listToMap(List<V> list) {
-        return IntStream.range(0, list.size()).boxed().collect(Collectors.toMap(Function.identity(), list::get));
+    // Already sorted lists are used as they are; otherwise only the element references are copied and sorted.
+    private static <K, V> List<V> sortedByKey(List<V> list, Function<V, K> keyMap, Comparator<? super K> order) {
+        if (SortedMerge.isSorted(list, keyMap, order)) {
+            return list;
+        }
+        var sorted = new ArrayList<>(list);
+        sorted.sort(Comparator.comparing(keyMap, order));
+        return sorted;
+    }
+
+    private static <V> List<V> sorted(List<V> list, Comparator<? super V> order) {
+        if (SortedMerge.isSorted(list, Function.identity(), order, false)) {
+            return list;
+        }
+        var sorted = new ArrayList<>(list);
+        sorted.sort(order);
+        return sorted;
     }
 }
@@ -0,0 +1,194 @@
+package tea.comparator;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Merge-joins two sequences sorted by key in a single pass, without building maps.
+// With allowDuplicates, the sorted sequences act as a compact multimap: equal keys form contiguous groups
+// whose elements are paired in sequence order, and only the second and later elements of a group get an
+// occurrence index in their path.
+class SortedMerge<K, L, R> {
+    private final Function<L, K> leftKey;
+    private final Function<R, K> rightKey;
+    private final Comparator<? super K> order;
+    private final Differencer<L, R> elementDiff;
+    private final boolean allowDuplicates;
+    private final Function<? super L, ?> leftValue;
+    private final Function<? super R, ?> rightValue;
+
+    SortedMerge(Function<L, K> leftKey, Function<R, K> rightKey, Comparator<? super K> order, Differencer<L, R> elementDiff) {
+        this(leftKey, rightKey, order, elementDiff, false);
+    }
+
+    SortedMerge(Function<L, K> leftKey, Function<R, K> rightKey, Comparator<? super K> order, Differencer<L, R> elementDiff, boolean allowDuplicates) {
+        this(leftKey, rightKey, order, elementDiff, allowDuplicates, Function.identity(), Function.identity());
+    }
+
+    // leftValue and rightValue give the value reported for one-sided elements, e.g. loading it from an index entry.
+    SortedMerge(Function<L, K> leftKey, Function<R, K> rightKey, Comparator<? super K> order, Differencer<L, R> elementDiff, boolean allowDuplicates,
+                Function<? super L, ?> leftValue, Function<? super R, ?> rightValue) {
+        this.leftKey = leftKey;
+        this.rightKey = rightKey;
+        this.order = order;
+        this.elementDiff = elementDiff;
+        this.allowDuplicates = allowDuplicates;
+        this.leftValue = leftValue;
+        this.rightValue = rightValue;
+    }
+
+    Stream<Difference> differences(Path path, Iterator<L> left, Iterator<R> right) {
+        var l = new Cursor<>(left, leftKey, order, allowDuplicates);
+        var r = new Cursor<>(right, rightKey, order, allowDuplicates);
+        var steps = new Spliterators.AbstractSpliterator<Stream<Difference>>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Stream<Difference>> action) {
+                if ((l.done() && r.done()) || path.limit().reached()) {
+                    return false;
+                }
+                int cmp = compare(l, r);
+                if (cmp < 0) {
+                    var value = l.next();
+                    action.accept(Stream.of(Difference.leftOnly(path.element(l.segment()), leftValue.apply(value))));
+                } else if (cmp > 0) {
+                    var value = r.next();
+                    action.accept(Stream.of(Difference.rightOnly(path.element(r.segment()), rightValue.apply(value))));
+                } else {
+                    var lv = l.next();
+                    var rv = r.next();
+                    action.accept(elementDiff.differences(path.element(l.segment()), lv, rv));
+                }
+                return true;
+            }
+        };
+        return StreamSupport.stream(steps, false).flatMap(Function.identity());
+    }
+
+    void differences(Path path, Iterator<L> left, Iterator<R> right, DifferenceSink sink) {
+        var l = new Cursor<>(left, leftKey, order, allowDuplicates);
+        var r = new Cursor<>(right, rightKey, order, allowDuplicates);
+        while (!(l.done() && r.done()) && !sink.done() && !path.limit().reached()) {
+            int cmp = compare(l, r);
+            if (cmp < 0) {
+                var value = l.next();
+                sink.accept(Difference.leftOnly(path.element(l.segment()), leftValue.apply(value)));
+            } else if (cmp > 0) {
+                var value = r.next();
+                sink.accept(Difference.rightOnly(path.element(r.segment()), rightValue.apply(value)));
+            } else {
+                var lv = l.next();
+                var rv = r.next();
+                elementDiff.differences(path.element(l.segment()), lv, rv, sink);
+            }
+        }
+    }
+
+    boolean anyDifference(Iterator<L> left, Iterator<R> right) {
+        var l = new Cursor<>(left, leftKey, order, allowDuplicates);
+        var r = new Cursor<>(right, rightKey, order, allowDuplicates);
+        while (!l.done() && !r.done()) {
+            if (compare(l, r) != 0 || elementDiff.anyDifference(l.next(), r.next())) {
+                return true;
+            }
+        }
+        return !(l.done() && r.done());
+    }
+
+    // Orders exhausted cursors last so the other side drains as one-sided entries.
+    private int compare(Cursor<L, K> l, Cursor<R, K> r) {
+        if (l.done()) {
+            return 1;
+        }
+        if (r.done()) {
+            return -1;
+        }
+        return order.compare(l.key, r.key);
+    }
+
+    static <V, K> boolean isSorted(Iterable<V> values, Function<V, K> keyMap, Comparator<? super K> order) {
+        return isSorted(values, keyMap, order, true);
+    }
+
+    static <V, K> boolean isSorted(Iterable<V> values, Function<V, K> keyMap, Comparator<? super K> order, boolean strictly) {
+        K previous = null;
+        boolean first = true;
+        for (var v : values) {
+            var key = keyMap.apply(v);
+            int cmp = first ? -1 : order.compare(previous, key);
+            if (cmp > 0 || (strictly && cmp == 0)) {
+                return false;
+            }
+            previous = key;
+            first = false;
+        }
+        return true;
+    }
+
+    // Looks one element ahead and checks that keys are increasing (strictly, unless duplicates are allowed).
+    static class Cursor<V, K> {
+        private final Iterator<V> values;
+        private final Function<V, K> keyMap;
+        private final Comparator<? super K> order;
+        private final boolean allowDuplicates;
+        private V value;
+        private K key;
+        private K lastKey;
+        private int occurrence;
+        private boolean done;
+
+        Cursor(Iterator<V> values, Function<V, K> keyMap, Comparator<? super K> order, boolean allowDuplicates) {
+            this.values = values;
+            this.keyMap = keyMap;
+            this.order = order;
+            this.allowDuplicates = allowDuplicates;
+            advance();
+        }
+
+        // Path segment of the element last returned by next().
+        Object segment() {
+            return occurrence == 0 ? lastKey : new Occurrence(lastKey, occurrence);
+        }
+
+        boolean done() {
+            return done;
+        }
+
+        // Key of the element that next() returns.
+        K key() {
+            return key;
+        }
+
+        V next() {
+            var current = value;
+            occurrence = lastKey != null && order.compare(lastKey, key) == 0 ? occurrence + 1 : 0;
+            lastKey = key;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            if (!values.hasNext()) {
+                done = true;
+                value = null;
+                key = null;
+                return;
+            }
+            value = values.next();
+            key = keyMap.apply(value);
+            if (lastKey != null) {
+                int cmp = order.compare(lastKey, key);
+                if (cmp == 0 && !allowDuplicates) {
+                    throw new IllegalStateException("Duplicate key " + key);
+                }
+                if (cmp > 0) {
+                    throw new IllegalStateException("Input is not sorted by key: " + key + " after " + lastKey);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package tea.comparator;
+
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Merges the changes of two sides (left, right) to a common base in a single pass over three key-sorted sequences,
+// like SortedMerge with a third cursor. Elements sharing a key are paired in sequence order.
+// Messages are merged field by field: a field changed on one side takes that side's value, and a field changed
+// on both sides to different values is a conflict. Deleting a message conflicts with changing it on the other side.
+public class ThreeWayMerge<K, M extends Message> {
+    private final M prototype;
+    private final Descriptor type;
+    private final List<FieldDescriptor> fields;
+    private final Function<M, K> keyMap;
+    private final Comparator<? super K> order;
+    private final Differencer<M, M> fieldChanges;
+
+    public ThreeWayMerge(M prototype, Function<M, K> keyMap, Comparator<? super K> order) {
+        this.prototype = prototype;
+        this.type = prototype.getDescriptorForType();
+        this.fields = type.getFields();
+        this.keyMap = keyMap;
+        this.order = order;
+        // top-level fields compare whole, so every difference names one changed field
+        var builder = MessageDifferencers.builder(prototype);
+        for (var field : fields) {
+            builder.override(field, RecursiveDifferencer.diffWithEquals());
+        }
+        this.fieldChanges = builder.compile();
+    }
+
+    // Streams the merged messages in key order to merged and the conflicts to conflicts.
+    public void merge(Path path, Iterator<M> base, Iterator<M> left, Iterator<M> right, Consumer<M> merged, Consumer<MergeConflict> conflicts) {
+        var b = new SortedMerge.Cursor<>(base, keyMap, order, true);
+        var l = new SortedMerge.Cursor<>(left, keyMap, order, true);
+        var r = new SortedMerge.Cursor<>(right, keyMap, order, true);
+        while (!(b.done() && l.done() && r.done())) {
+            var key = min(min(b, l), r).key();
+            M bv = null;
+            M lv = null;
+            M rv = null;
+            Object segment = null;
+            if (at(b, key)) {
+                bv = b.next();
+                segment = b.segment();
+            }
+            if (at(l, key)) {
+                lv = l.next();
+                segment = l.segment();
+            }
+            if (at(r, key)) {
+                rv = r.next();
+                segment = r.segment();
+            }
+            var result = merge(path.element(segment), bv, lv, rv, conflicts);
+            if (result != null) {
+                merged.accept(result);
+            }
+        }
+    }
+
+    // The merged message, or null when it was deleted.
+    private M merge(Path path, M base, M left, M right, Consumer<MergeConflict> conflicts) {
+        if (left == null && right == null) {
+            return null;
+        }
+        if (base == null) {
+            if (left == null || right == null) {
+                return left == null ? right : left;
+            }
+            return mergeFields(path, prototype, left, right, conflicts);
+        }
+        if (left == null) {
+            if (!fieldChanges.anyDifference(base, right)) {
+                return null;
+            }
+            conflicts.accept(new MergeConflict(MergeConflict.Kind.LEFT_DELETED, path, base, null, right));
+            return right;
+        }
+        if (right == null) {
+            if (!fieldChanges.anyDifference(base, left)) {
+                return null;
+            }
+            conflicts.accept(new MergeConflict(MergeConflict.Kind.RIGHT_DELETED, path, base, left, null));
+            return left;
+        }
+        return mergeFields(path, base, left, right, conflicts);
+    }
+
+    @SuppressWarnings("unchecked")
+    private M mergeFields(Path path, M base, M left, M right, Consumer<MergeConflict> conflicts) {
+        var rightChanged = changedFields(base, right);
+        if (rightChanged.isEmpty()) {
+            return left;
+        }
+        var leftChanged = changedFields(base, left);
+        if (leftChanged.isEmpty()) {
+            return right;
+        }
+
+        var merged = left.toBuilder();
+        for (int i = rightChanged.nextSetBit(0); i >= 0; i = rightChanged.nextSetBit(i + 1)) {
+            var field = fields.get(i);
+            if (!leftChanged.get(i)) {
+                if (field.isRepeated() || right.hasField(field)) {
+                    merged.setField(field, right.getField(field));
+                } else {
+                    merged.clearField(field);
+                }
+            } else if (!left.getField(field).equals(right.getField(field))) {
+                conflicts.accept(new MergeConflict(MergeConflict.Kind.BOTH_CHANGED, path.sub(field.getName()),
+                        base.getField(field), left.getField(field), right.getField(field)));
+            }
+        }
+        return (M) merged.build();
+    }
+
+    // Indices into fields of the fields that differ.
+    private BitSet changedFields(M base, M changed) {
+        var indices = new BitSet(fields.size());
+        fieldChanges.differences(Path.root(), base, changed,
+                difference -> indices.set(type.findFieldByName((String) difference.path().segment()).getIndex()));
+        return indices;
+    }
+
+    private boolean at(SortedMerge.Cursor<M, K> cursor, K key) {
+        return !cursor.done() && order.compare(cursor.key(), key) == 0;
+    }
+
+    private SortedMerge.Cursor<M, K> min(SortedMerge.Cursor<M, K> a, SortedMerge.Cursor<M, K> b) {
+        if (a.done()) {
+            return b;
+        }
+        if (b.done()) {
+            return a;
+        }
+        return order.compare(a.key(), b.key()) <= 0 ? a : b;
+    }
+}